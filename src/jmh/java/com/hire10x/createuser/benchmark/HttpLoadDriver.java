@@ -0,0 +1,133 @@
+package com.hire10x.createuser.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running instance: for every concurrency level, that many clients
+ * send requests back to back for the given duration, then throughput, error count and latency
+ * percentiles are printed. Run it once against the default profile and once against
+ * --spring.profiles.active=virtual-threads to compare platform and virtual request threads.
+ *
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Dbenchmark.main=com.hire10x.createuser.benchmark.HttpLoadDriver \
+ *     -Dbenchmark.args="http://localhost:8080/api/v1/users/search/John1000 50,200,1000 30 $TOKEN"
+ * </pre>
+ *
+ * Arguments: url, comma-separated concurrency levels, seconds per level, optional bearer token.
+ */
+public class HttpLoadDriver {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: HttpLoadDriver <url> <concurrency[,concurrency...]> <seconds> [bearer-token]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int[] levels = Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray();
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        String token = args.length > 3 ? args[3] : null;
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET().timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        System.out.printf("%-12s %12s %10s %10s %10s %10s %10s%n",
+                "concurrency", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (int concurrency : levels) {
+            LatencyRecorder result = run(request.build(), concurrency, duration);
+            System.out.printf("%-12d %12.1f %10d %10.2f %10.2f %10.2f %10.2f%n",
+                    concurrency,
+                    result.count() / (double) duration.toSeconds(),
+                    result.errors(),
+                    result.percentileMillis(50),
+                    result.percentileMillis(99),
+                    result.percentileMillis(99.9),
+                    result.percentileMillis(100));
+        }
+    }
+
+    static LatencyRecorder run(HttpRequest request, int concurrency, Duration duration) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                recorders.add(recorder);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            recorder.record(System.nanoTime() - start, response.statusCode() >= 400);
+                        } catch (Exception e) {
+                            recorder.record(System.nanoTime() - start, true);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return LatencyRecorder.merge(recorders);
+    }
+
+    /** Per-client latency samples, so clients never contend on a shared structure while measuring. */
+    static class LatencyRecorder {
+
+        private long[] samples = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, boolean error) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+
+        long count() {
+            return size;
+        }
+
+        long errors() {
+            return errors.get();
+        }
+
+        double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * size) - 1;
+            return samples[Math.max(0, Math.min(index, size - 1))] / 1_000_000.0;
+        }
+
+        static LatencyRecorder merge(List<LatencyRecorder> recorders) {
+            LatencyRecorder merged = new LatencyRecorder();
+            for (LatencyRecorder recorder : recorders) {
+                for (int i = 0; i < recorder.size; i++) {
+                    merged.record(recorder.samples[i], false);
+                }
+                merged.errors.addAndGet(recorder.errors());
+            }
+            Arrays.sort(merged.samples, 0, merged.size);
+            return merged;
+        }
+    }
+}
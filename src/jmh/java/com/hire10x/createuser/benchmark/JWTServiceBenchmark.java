@@ -0,0 +1,62 @@
+package com.hire10x.createuser.benchmark;
+
+import com.hire10x.createuser.service.JWTService;
+import com.hire10x.createuser.service.JwtKeyRing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of token issue (login path) and token checks (every authenticated request) under
+ * concurrent load. A claims cache size of 0 measures the full parse and HMAC verification on
+ * every call; the default size measures repeated requests carrying the same bearer token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class JWTServiceBenchmark {
+
+    @Param({"0", "10000"})
+    private long claimsCacheMaxSize;
+
+    private JWTService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtService = new JWTService(JwtKeyRing.ephemeral(), claimsCacheMaxSize, Duration.ofMinutes(30), Duration.ofDays(7), new SimpleMeterRegistry());
+        token = jwtService.generateToken("firstName1001");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("firstName1001");
+    }
+
+    @Benchmark
+    public String extractUserId() {
+        return jwtService.extractUserId(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token);
+    }
+}
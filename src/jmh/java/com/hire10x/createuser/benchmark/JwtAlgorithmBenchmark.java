@@ -0,0 +1,65 @@
+package com.hire10x.createuser.benchmark;
+
+import com.hire10x.createuser.service.JWTService;
+import com.hire10x.createuser.service.JwtKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-thread cost of signing and of verifying one token per signing algorithm. Verification uses a
+ * plain parser holding only the verification key, bypassing JWTService's claims cache: every call parses
+ * the token and checks its signature, which is the work a downstream service does with our JWK set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({JwtKeyRing.HS256, JwtKeyRing.ES256, JwtKeyRing.EDDSA})
+    private String algorithm;
+
+    private JWTService jwtService;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtKeyRing keyRing = JwtKeyRing.ephemeral(algorithm);
+        jwtService = new JWTService(keyRing, 0, Duration.ofMinutes(30), Duration.ofDays(7), new SimpleMeterRegistry());
+        Key verificationKey = keyRing.activeKey().verificationKey();
+        parser = Jwts.parser()
+                .keyLocator(header -> verificationKey)
+                .build();
+        token = jwtService.generateToken("firstName1001");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken("firstName1001");
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,234 @@
+package com.hire10x.createuser.benchmark;
+
+import com.hire10x.createuser.CreateUserApplication;
+import com.hire10x.createuser.benchmark.HttpLoadDriver.LatencyRecorder;
+import com.hire10x.createuser.model.UserModel;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the service against in-memory H2 (Spring profile loadtest), seeds synthetic users and runs
+ * a closed-loop mixed workload over HTTP: login, filtered search, profile fetch, profile update and
+ * status patch. Throughput and latency percentiles are printed per endpoint. Client and server
+ * share the JVM, so compare runs on the same machine rather than reading absolute numbers.
+ *
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Dbenchmark.main=com.hire10x.createuser.benchmark.LoadTestHarness \
+ *     -Dbenchmark.args="100000 64 60"
+ * </pre>
+ *
+ * Arguments (all optional): users to seed, concurrent clients, seconds to measure, then any Spring
+ * arguments such as --spring.profiles.active=loadtest,virtual-threads.
+ */
+public class LoadTestHarness {
+
+    private static final String PASSWORD = "Password@123";
+    private static final int TOKENS = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    enum Operation {
+        LOGIN(5), SEARCH(35), PROFILE(40), UPDATE(10), STATUS(10);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(int roll) {
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException("Weights must add up to 100");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        List<String> springArgs = new ArrayList<>(List.of("--spring.profiles.active=loadtest", "--server.port=0"));
+        for (int i = 3; i < args.length; i++) {
+            springArgs.add(args[i]);
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CreateUserApplication.class)
+                .run(springArgs.toArray(String[]::new))) {
+            List<UserModel> users = SyntheticUsers.generate(userCount);
+            // Every seeded user shares one hash, so seeding does not pay BCrypt per row
+            String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+            users.forEach(user -> user.setPassword(hash));
+            SyntheticUsers.insert(context.getBean(JdbcTemplate.class), users);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Workload workload = new Workload("http://localhost:" + port, users);
+            workload.login();
+
+            System.out.printf("seeded %d users, %d clients, %d s (after %d s warm-up)%n",
+                    userCount, concurrency, duration.toSeconds(), WARMUP.toSeconds());
+            workload.run(concurrency, WARMUP);
+            report(workload.run(concurrency, duration), duration);
+        }
+    }
+
+    private static void report(Map<Operation, LatencyRecorder> results, Duration duration) {
+        System.out.printf("%-10s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        results.forEach((operation, result) -> System.out.printf("%-10s %10.1f %10d %10.2f %10.2f %10.2f %10.2f%n",
+                operation,
+                result.count() / (double) duration.toSeconds(),
+                result.errors(),
+                result.percentileMillis(50),
+                result.percentileMillis(99),
+                result.percentileMillis(99.9),
+                result.percentileMillis(100)));
+    }
+
+    private static class Workload {
+
+        private final String baseUrl;
+        private final List<UserModel> users;
+        // Enabled users that log in and hold the tokens; status patches only go to the rest
+        private final List<UserModel> loginPool = new ArrayList<>();
+        private final List<UserModel> statusTargets = new ArrayList<>();
+        private final List<String> tokens = new ArrayList<>();
+        private final HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        Workload(String baseUrl, List<UserModel> users) {
+            this.baseUrl = baseUrl;
+            this.users = users;
+            for (UserModel user : users) {
+                if (loginPool.size() < TOKENS && "ENABLED".equals(user.getStatus())) {
+                    loginPool.add(user);
+                } else {
+                    statusTargets.add(user);
+                }
+            }
+            if (loginPool.size() < TOKENS || statusTargets.isEmpty()) {
+                throw new IllegalArgumentException("Seed more users: " + TOKENS + " enabled ones log in and status patches need others");
+            }
+        }
+
+        void login() throws Exception {
+            for (UserModel user : loginPool) {
+                HttpResponse<String> response = client.send(loginRequest(user), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Seed login failed with " + response.statusCode() + ": " + response.body());
+                }
+                tokens.add(response.body());
+            }
+        }
+
+        Map<Operation, LatencyRecorder> run(int concurrency, Duration duration) throws InterruptedException {
+            List<Map<Operation, LatencyRecorder>> perClient = new ArrayList<>();
+            long deadline = System.nanoTime() + duration.toNanos();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < concurrency; i++) {
+                    Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+                    for (Operation operation : Operation.values()) {
+                        recorders.put(operation, new LatencyRecorder());
+                    }
+                    perClient.add(recorders);
+                    clients.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        while (System.nanoTime() < deadline) {
+                            Operation operation = Operation.pick(random.nextInt(100));
+                            HttpRequest request = request(operation, random);
+                            long start = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                recorders.get(operation).record(System.nanoTime() - start, response.statusCode() >= 400);
+                            } catch (Exception e) {
+                                recorders.get(operation).record(System.nanoTime() - start, true);
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                merged.put(operation, LatencyRecorder.merge(perClient.stream().map(recorders -> recorders.get(operation)).toList()));
+            }
+            return merged;
+        }
+
+        private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+            UserModel user = user(random.nextInt(users.size()));
+            String token = tokens.get(random.nextInt(tokens.size()));
+            return switch (operation) {
+                case LOGIN -> loginRequest(loginPool.get(random.nextInt(loginPool.size())));
+                case SEARCH -> authorized("/api/v1/users/search?companyId=" + user.getCustomerId()
+                        + "&role=" + user.getRole() + "&status=ENABLED&page=" + random.nextInt(10) + "&size=20", token)
+                        .GET()
+                        .build();
+                case PROFILE -> authorized("/api/v1/users/search/" + user.getUserId(), token)
+                        .GET()
+                        .build();
+                case UPDATE -> authorized("/api/v1/users/" + user.getUserId(), token)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(updateBody(user, random)))
+                        .build();
+                // A disabled pool user would fail its logins and every request made with its tokens
+                case STATUS -> authorized("/api/v1/users/" + statusTargets.get(random.nextInt(statusTargets.size())).getUserId(), token)
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                "{\"status\":\"" + (random.nextBoolean() ? "ENABLED" : "DISABLED") + "\"}"))
+                        .build();
+            };
+        }
+
+        // The login endpoint is a GET that carries its credentials in a JSON body
+        private HttpRequest loginRequest(UserModel user) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/login"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .method("GET", HttpRequest.BodyPublishers.ofString(
+                            "{\"userId\":\"" + user.getUserId() + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build();
+        }
+
+        private HttpRequest.Builder authorized(String path, String token) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token);
+        }
+
+        // Keeps email and phone so the unique constraints never reject an update; updateUser also
+        // copies role and designation for ADMIN users, so those are sent unchanged
+        private static String updateBody(UserModel user, ThreadLocalRandom random) {
+            return "{\"firstName\":\"" + user.getFirstName() + "\",\"lastName\":\"" + user.getLastName()
+                    + "\",\"middleName\":\"m" + random.nextInt(100) + "\",\"email\":\"" + user.getEmail()
+                    + "\",\"phone\":\"" + user.getPhone() + "\",\"customerId\":\"" + user.getCustomerId()
+                    + "\",\"role\":\"" + user.getRole() + "\",\"designation\":\"" + user.getDesignation() + "\"}";
+        }
+
+        private UserModel user(int index) {
+            return users.get(index);
+        }
+    }
+}
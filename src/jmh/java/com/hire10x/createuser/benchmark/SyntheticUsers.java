@@ -0,0 +1,74 @@
+package com.hire10x.createuser.benchmark;
+
+import com.hire10x.createuser.model.UserModel;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic user rows for benchmarks: ten tenants, three roles and a 9:1 ENABLED/DISABLED
+ * split, so filtered searches select a realistic fraction of the table.
+ */
+final class SyntheticUsers {
+
+    static final String[] ROLES = {"ADMIN", "RECRUITER", "INTERVIEWER"};
+    static final int CUSTOMERS = 10;
+
+    private SyntheticUsers() {
+    }
+
+    static List<UserModel> generate(int count) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<UserModel> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = 1000L + i;
+            UserModel user = new UserModel();
+            user.setId(id);
+            user.setUserId("user" + id);
+            user.setFirstName("user");
+            user.setLastName("bench" + i);
+            user.setMiddleName("m");
+            user.setEmail("user" + id + "@example.com");
+            user.setPhone(String.format("9%09d", i));
+            user.setPassword("{bcrypt}$2a$10$abcdefghijklmnopqrstuuXcBWXyFMMg4LjV8Qxq9DyvHxbxwQBiS");
+            user.setDesignation("Engineer");
+            user.setRole(ROLES[i % ROLES.length]);
+            user.setCustomerId(customer(i % CUSTOMERS));
+            user.setStatus(i % 10 == 0 ? "DISABLED" : "ENABLED");
+            user.setCreatedAt(start.plusSeconds(i));
+            user.setUpdatedAt(start.plusSeconds(i));
+            users.add(user);
+        }
+        return users;
+    }
+
+    // Plain JDBC batches; going through JPA would make seeding a million rows take minutes
+    static void insert(JdbcTemplate jdbcTemplate, List<UserModel> rows) {
+        String sql = "INSERT INTO users_table (id, user_id, first_name, middle_name, last_name, email, phone, password,"
+                + " designation, role, customer_id, status, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, rows, 5000, (ps, user) -> {
+            ps.setLong(1, user.getId());
+            ps.setString(2, user.getUserId());
+            ps.setString(3, user.getFirstName());
+            ps.setString(4, user.getMiddleName());
+            ps.setString(5, user.getLastName());
+            ps.setString(6, user.getEmail());
+            ps.setString(7, user.getPhone());
+            ps.setString(8, user.getPassword());
+            ps.setString(9, user.getDesignation());
+            ps.setString(10, user.getRole());
+            ps.setString(11, user.getCustomerId());
+            ps.setString(12, user.getStatus());
+            ps.setTimestamp(13, Timestamp.valueOf(user.getCreatedAt()));
+            ps.setTimestamp(14, Timestamp.valueOf(user.getUpdatedAt()));
+        });
+    }
+
+    static String customer(int index) {
+        return "company" + index;
+    }
+}
@@ -0,0 +1,97 @@
+package com.hire10x.createuser.benchmark;
+
+import com.hire10x.createuser.CreateUserApplication;
+import com.hire10x.createuser.model.UserModel;
+import com.hire10x.createuser.repository.UserRepo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inserts per second through UserRepo.save with the user_seq id generator. The "none" optimizer
+ * fetches a sequence value for every insert, which is what allocationSize = 1 did; "pooled-lo"
+ * reserves a block of 50 ids per round-trip. Defaults to in-memory H2; pass
+ * -p jdbcUrl=jdbc:mysql://...&amp;rewriteBatchedStatements=true -p dialect=org.hibernate.dialect.MySQLDialect
+ * (plus username/password) to measure against MySQL, where the sequence is emulated with a table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class UserInsertBenchmark {
+
+    @Param({"none", "pooled-lo"})
+    private String optimizer;
+
+    @Param("jdbc:h2:mem:inserts;MODE=MySQL;DB_CLOSE_DELAY=-1")
+    private String jdbcUrl;
+
+    @Param("org.hibernate.dialect.H2Dialect")
+    private String dialect;
+
+    @Param("sa")
+    private String username;
+
+    @Param("")
+    private String password;
+
+    private final AtomicLong counter = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserRepo userRepo;
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(CreateUserApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.driver-class-name=",
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.jpa.database-platform=" + dialect,
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=" + optimizer,
+                        "--security.password.bcrypt.strength=4",
+                        "--logging.level.root=WARN");
+        userRepo = context.getBean(UserRepo.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserModel insert() {
+        long n = counter.incrementAndGet();
+        return userRepo.save(UserModel.builder()
+                .firstName("bench")
+                .lastName("insert")
+                .password("Password@123")
+                .role("USER")
+                .customerId("bench")
+                .status("ENABLED")
+                .email("bench" + n + "@example.com")
+                .phone(String.format("%010d", n))
+                .build());
+    }
+}
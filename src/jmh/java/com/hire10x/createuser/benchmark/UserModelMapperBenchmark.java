@@ -0,0 +1,56 @@
+package com.hire10x.createuser.benchmark;
+
+import com.hire10x.createuser.dto.UserModelDto;
+import com.hire10x.createuser.mapper.UserModelMapper;
+import com.hire10x.createuser.mapper.UserModelMapperImpl;
+import com.hire10x.createuser.model.UserModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the generated MapStruct mapper on one entity (profile fetch) and on result lists of the
+ * sizes a search page, a batch lookup and an export chunk produce.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserModelMapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int listSize;
+
+    private final UserModelMapper mapper = new UserModelMapperImpl();
+    private UserModel user;
+    private List<UserModel> users;
+
+    @Setup
+    public void setUp() {
+        users = SyntheticUsers.generate(listSize);
+        user = users.get(0);
+    }
+
+    @Benchmark
+    public UserModelDto toDtoSingle() {
+        return mapper.toDto(user);
+    }
+
+    @Benchmark
+    public List<UserModelDto> toDtoList() {
+        return mapper.toDto(users);
+    }
+}
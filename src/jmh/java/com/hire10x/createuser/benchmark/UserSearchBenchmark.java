@@ -0,0 +1,154 @@
+package com.hire10x.createuser.benchmark;
+
+import com.hire10x.createuser.CreateUserApplication;
+import com.hire10x.createuser.dto.UserModelDto;
+import com.hire10x.createuser.dto.UserResponseDto;
+import com.hire10x.createuser.mapper.UserModelMapper;
+import com.hire10x.createuser.model.UserModel;
+import com.hire10x.createuser.repository.UserRepo;
+import com.hire10x.createuser.service.UserSearchCursor;
+import com.hire10x.createuser.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * GET /api/v1/users/search cost as the table grows. The legacy benchmarks replay the original
+ * getAllUsers, which loaded every user and filtered and paged with streams: legacyStreamFilter is
+ * the stream pipeline alone over rows already in memory, legacyFindAllAndFilter adds the findAll.
+ * offsetPage and keysetPage are the current indexed queries. depthPercent picks how far into the
+ * matching rows the page starts; every benchmark reads that same page, keysetPage with the cursor
+ * of the row just before it, so offset and keyset cost are compared at equal depth.
+ * Runs on in-memory H2 in MySQL mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserSearchBenchmark {
+
+    private static final String COMPANY_ID = SyntheticUsers.customer(3);
+    private static final String ROLE = "RECRUITER";
+    private static final String STATUS = "ENABLED";
+    private static final int SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int users;
+
+    // 0 is the first page, 99 is close to the last one
+    @Param({"0", "50", "99"})
+    private int depthPercent;
+
+    private ConfigurableApplicationContext context;
+    private UserRepo userRepo;
+    private UserService userService;
+    private UserModelMapper userModelMapper;
+    private List<UserModel> loadedUsers;
+    private int page;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CreateUserApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:search" + users + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--security.password.bcrypt.strength=4",
+                        "--logging.level.root=WARN");
+        userRepo = context.getBean(UserRepo.class);
+        userService = context.getBean(UserService.class);
+        userModelMapper = context.getBean(UserModelMapper.class);
+
+        List<UserModel> rows = SyntheticUsers.generate(users);
+        SyntheticUsers.insert(context.getBean(JdbcTemplate.class), rows);
+        loadedUsers = rows;
+
+        // Rows are generated in (createdAt, id) order, the same order the search uses
+        List<UserModel> matching = matching(rows).toList();
+        int lastPage = (matching.size() - 1) / SIZE;
+        page = Math.min(matching.size() * depthPercent / 100 / SIZE, lastPage);
+        if (page == 0) {
+            cursor = "";
+        } else {
+            UserModel previous = matching.get(page * SIZE - 1);
+            cursor = new UserSearchCursor(previous.getCreatedAt(), previous.getId()).encode();
+        }
+
+        String offsetFirst = offsetPage().getUsers().get(0).getUserId();
+        String keysetFirst = keysetPage().getUsers().get(0).getUserId();
+        if (!offsetFirst.equals(keysetFirst)) {
+            throw new IllegalStateException("Offset page starts at " + offsetFirst + " but keyset page at " + keysetFirst);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponseDto legacyStreamFilter() {
+        return filterAndPage(loadedUsers);
+    }
+
+    @Benchmark
+    public UserResponseDto legacyFindAllAndFilter() {
+        return filterAndPage(userRepo.findAll());
+    }
+
+    @Benchmark
+    public UserResponseDto offsetPage() {
+        return userService.getAllUsers(ROLE, STATUS, COMPANY_ID, page, SIZE);
+    }
+
+    @Benchmark
+    public UserResponseDto keysetPage() {
+        return userService.getUsersAfter(ROLE, STATUS, COMPANY_ID, cursor, SIZE, false);
+    }
+
+    // The pre-Specification getAllUsers pipeline, kept here as the baseline
+    private UserResponseDto filterAndPage(List<UserModel> allUsers) {
+        List<UserModel> filteredUsers = matching(allUsers).toList();
+
+        long totalCount = filteredUsers.size();
+        int totalPages = (int) Math.ceil((double) totalCount / SIZE);
+        int currentPage = Math.max(0, Math.min(page, totalPages - 1));
+        List<UserModel> paginatedUsers = filteredUsers.stream()
+                .skip((long) currentPage * SIZE)
+                .limit(SIZE)
+                .toList();
+        List<UserModelDto> userDtos = userModelMapper.toDto(paginatedUsers);
+        return new UserResponseDto(totalCount, totalPages, currentPage, userDtos);
+    }
+
+    private static Stream<UserModel> matching(List<UserModel> allUsers) {
+        return allUsers.stream()
+                .filter(user -> COMPANY_ID.equals(user.getCustomerId()))
+                .filter(user -> ROLE.equals(user.getRole()))
+                .filter(user -> STATUS.equals(user.getStatus()));
+    }
+}
@@ -0,0 +1,102 @@
+-- Query plans and latency of /api/v1/users/search against USERS_TABLE at 1M+ rows (MySQL 8.0.18+).
+--
+-- Run against a scratch schema, e.g.
+--   mysql -u root -p bench < src/jmh/sql/user-search-indexes.sql
+-- after starting the service once against that schema so Hibernate creates the table and indexes.
+-- Every search shape is explained twice: with the indexes from UserModel and with them ignored,
+-- which is what the table looked like before they were added. Compare the "actual time" and
+-- "rows" figures of the EXPLAIN ANALYZE output.
+
+SET SESSION cte_max_recursion_depth = 2000000;
+
+-- 1.2M users spread over 200 customers, 3 roles and 2 statuses
+INSERT INTO users_table (id, user_id, first_name, last_name, password, role, customer_id, status, email, phone, created_at)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 1200000
+)
+SELECT 100000 + n,
+       CONCAT('user', 100000 + n),
+       'user',
+       'bench',
+       '$2a$12$abcdefghijklmnopqrstuu5Yq9bYl9E9l3Yp6w5cV5x8r5kS3S2e',
+       ELT(1 + n % 3, 'ADMIN', 'USER', 'MANAGER'),
+       CONCAT('customer', n % 200),
+       IF(n % 10 = 0, 'DISABLED', 'ENABLED'),
+       CONCAT('user', n, '@bench.example'),
+       LPAD(n, 10, '0'),
+       TIMESTAMP('2024-01-01') + INTERVAL n SECOND
+FROM seq;
+
+ANALYZE TABLE users_table;
+
+-- Offset page 0, all filters (UserService.getAllUsers)
+EXPLAIN ANALYZE
+SELECT * FROM users_table
+WHERE customer_id = 'customer42' AND status = 'ENABLED' AND role = 'ADMIN'
+ORDER BY created_at, id LIMIT 10;
+
+EXPLAIN ANALYZE
+SELECT * FROM users_table IGNORE INDEX (idx_users_customer_status_role_created, idx_users_customer_status_created,
+                                   idx_users_customer_role_created, idx_users_customer_created, idx_users_created)
+WHERE customer_id = 'customer42' AND status = 'ENABLED' AND role = 'ADMIN'
+ORDER BY created_at, id LIMIT 10;
+
+-- Count query issued alongside every offset page
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM users_table
+WHERE customer_id = 'customer42' AND status = 'ENABLED' AND role = 'ADMIN';
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM users_table IGNORE INDEX (idx_users_customer_status_role_created, idx_users_customer_status_created,
+                                   idx_users_customer_role_created, idx_users_customer_created, idx_users_created)
+WHERE customer_id = 'customer42' AND status = 'ENABLED' AND role = 'ADMIN';
+
+-- Deep keyset page, tenant and status filters (UserService.getUsersAfter)
+EXPLAIN ANALYZE
+SELECT * FROM users_table
+WHERE customer_id = 'customer42' AND status = 'ENABLED'
+  AND (created_at > '2024-01-10 00:00:00' OR (created_at = '2024-01-10 00:00:00' AND id > 877000))
+ORDER BY created_at, id LIMIT 11;
+
+EXPLAIN ANALYZE
+SELECT * FROM users_table IGNORE INDEX (idx_users_customer_status_role_created, idx_users_customer_status_created,
+                                   idx_users_customer_role_created, idx_users_customer_created, idx_users_created)
+WHERE customer_id = 'customer42' AND status = 'ENABLED'
+  AND (created_at > '2024-01-10 00:00:00' OR (created_at = '2024-01-10 00:00:00' AND id > 877000))
+ORDER BY created_at, id LIMIT 11;
+
+-- Offset page 0, tenant and status filters: must use idx_users_customer_status_created without a filesort
+EXPLAIN ANALYZE
+SELECT * FROM users_table
+WHERE customer_id = 'customer42' AND status = 'ENABLED'
+ORDER BY created_at, id LIMIT 10;
+
+-- Offset page 0, tenant and role filters: must use idx_users_customer_role_created without a filesort
+EXPLAIN ANALYZE
+SELECT * FROM users_table
+WHERE customer_id = 'customer42' AND role = 'ADMIN'
+ORDER BY created_at, id LIMIT 10;
+
+EXPLAIN ANALYZE
+SELECT * FROM users_table IGNORE INDEX (idx_users_customer_status_role_created, idx_users_customer_status_created,
+                                   idx_users_customer_role_created, idx_users_customer_created, idx_users_created)
+WHERE customer_id = 'customer42' AND role = 'ADMIN'
+ORDER BY created_at, id LIMIT 10;
+
+-- Tenant-only keyset page
+EXPLAIN ANALYZE
+SELECT * FROM users_table
+WHERE customer_id = 'customer42'
+  AND (created_at > '2024-01-10 00:00:00' OR (created_at = '2024-01-10 00:00:00' AND id > 877000))
+ORDER BY created_at, id LIMIT 11;
+
+EXPLAIN ANALYZE
+SELECT * FROM users_table IGNORE INDEX (idx_users_customer_status_role_created, idx_users_customer_status_created,
+                                   idx_users_customer_role_created, idx_users_customer_created, idx_users_created)
+WHERE customer_id = 'customer42'
+  AND (created_at > '2024-01-10 00:00:00' OR (created_at = '2024-01-10 00:00:00' AND id > 877000))
+ORDER BY created_at, id LIMIT 11;
+
+DELETE FROM users_table WHERE last_name = 'bench';
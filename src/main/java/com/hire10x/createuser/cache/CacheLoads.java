@@ -0,0 +1,58 @@
+package com.hire10x.createuser.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Read-through load on an AsyncCache that runs the loader on the caller's thread. The in-flight future
+ * is the cache entry, so an invalidate during the load removes it and the late result is never cached;
+ * and the loader runs outside Caffeine's compute lock, so a virtual thread doing JDBC never pins.
+ */
+final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return await(cached);
+        }
+
+        InFlight<V> load = new InFlight<>();
+        CompletableFuture<V> existing = cache.asMap().putIfAbsent(key, load);
+        if (existing != null) {
+            return await(existing);
+        }
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            // Removed before anyone is woken, so the next caller retries at once; the entry itself
+            // completes empty, which Caffeine drops quietly instead of logging the failure
+            cache.asMap().remove(key, load);
+            load.outcome.completeExceptionally(e);
+            load.complete(null);
+            throw e;
+        }
+        load.complete(value);
+        load.outcome.complete(value);
+        return value;
+    }
+
+    private static <V> V await(CompletableFuture<V> entry) {
+        return entry instanceof InFlight<V> load ? Futures.join(load.outcome) : Futures.join(entry);
+    }
+
+    /**
+     * Cache entry of a load started by getOrLoad. Waiters read the result from outcome, the only
+     * future that ever completes exceptionally; a missing user is routine and must not reach
+     * Caffeine as a failed load.
+     */
+    private static final class InFlight<V> extends CompletableFuture<V> {
+
+        private final CompletableFuture<V> outcome = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,49 @@
+package com.hire10x.createuser.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hire10x.createuser.dto.UserModelDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * In-process profile cache. Evictions only reach this instance, so the TTL bounds how long another
+ * instance can serve a profile that was changed elsewhere.
+ */
+@Component
+@ConditionalOnProperty(name = "user.profile-cache.backend", havingValue = "local", matchIfMissing = true)
+public class CaffeineUserProfileCache implements UserProfileCache {
+
+    private final AsyncCache<String, UserModelDto> profiles;
+
+    public CaffeineUserProfileCache(@Value("${user.profile-cache.max-size:10000}") long maxSize,
+                                    @Value("${user.profile-cache.ttl:5m}") Duration ttl,
+                                    MeterRegistry meterRegistry) {
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size tagged cache=user.profile
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "user.profile");
+    }
+
+    // An evict that lands while a load is in flight discards that load, so an old row is never written back
+    @Override
+    public UserModelDto get(String userId, Function<String, UserModelDto> loader) {
+        return CacheLoads.getOrLoad(profiles, userId, loader);
+    }
+
+    @Override
+    public void evict(String userId) {
+        if (userId != null) {
+            profiles.synchronous().invalidate(userId);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.hire10x.createuser.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hire10x.createuser.exceptions.IdempotencyKeyMismatchException;
+import com.hire10x.createuser.exceptions.IdempotentRequestInProgressException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Responses of recent requests that carried an Idempotency-Key, bounded in size and kept for a TTL.
+ * The first request with a key runs; a retry with the same key and payload gets the stored response,
+ * and one that arrives while the first is still running waits for it, like {@link SingleFlight}.
+ * Server errors are handed to waiting callers but not kept, so a later retry runs again.
+ * Entries live in this instance only; another replica will run a retry it has not seen.
+ */
+@Component
+public class IdempotencyStore {
+
+    public record StoredResponse(int status, String body) {
+    }
+
+    public record Outcome(StoredResponse response, boolean replayed) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+
+    private final Cache<String, Entry> entries;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(@Value("${user.idempotency.max-size:10000}") long maxSize,
+                            @Value("${user.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${user.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                            MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.waitTimeout = waitTimeout;
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "user.idempotency");
+    }
+
+    /**
+     * Runs the request once per key. The fingerprint identifies the payload; reusing a key for a
+     * different payload is rejected with {@link IdempotencyKeyMismatchException}.
+     */
+    public Outcome execute(String key, String fingerprint, Supplier<StoredResponse> request) {
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different request");
+            }
+            return new Outcome(await(existing), true);
+        }
+
+        StoredResponse response;
+        try {
+            response = request.get();
+        } catch (RuntimeException | Error e) {
+            entries.asMap().remove(key, entry);
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+        if (response.status() >= 500) {
+            entries.asMap().remove(key, entry);
+        }
+        entry.response().complete(response);
+        return new Outcome(response, false);
+    }
+
+    private StoredResponse await(Entry entry) {
+        try {
+            return entry.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException("A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
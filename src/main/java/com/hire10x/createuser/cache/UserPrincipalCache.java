@@ -0,0 +1,46 @@
+package com.hire10x.createuser.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hire10x.createuser.model.UserPrinciple;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Principals of recently authenticated users, so JwtFilter does not read USERS_TABLE on every request.
+ * Entries are evicted locally when the user changes; the TTL bounds how long other instances may
+ * keep serving a stale entry.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final AsyncCache<String, UserPrinciple> principals;
+
+    public UserPrincipalCache(@Value("${user.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${user.principal-cache.ttl:5m}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "user.principal");
+    }
+
+    // Loads outside Caffeine's compute lock, so a virtual thread doing JDBC here never pins its carrier;
+    // an evict during the load (password or status change) discards its result
+    public UserPrinciple get(String userId, Function<String, UserPrinciple> loader) {
+        return CacheLoads.getOrLoad(principals, userId, loader);
+    }
+
+    public void evict(String userId) {
+        if (userId != null) {
+            principals.synchronous().invalidate(userId);
+        }
+    }
+}
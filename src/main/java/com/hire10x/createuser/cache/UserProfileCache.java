@@ -0,0 +1,17 @@
+package com.hire10x.createuser.cache;
+
+import com.hire10x.createuser.dto.UserModelDto;
+
+import java.util.function.Function;
+
+/**
+ * Read-through cache of user profiles served by getUserByUserid. Implementations decide where the
+ * entries live; callers only rely on get/evict, so a shared backend can replace the local one
+ * without touching UserService.
+ */
+public interface UserProfileCache {
+
+    UserModelDto get(String userId, Function<String, UserModelDto> loader);
+
+    void evict(String userId);
+}
@@ -2,6 +2,9 @@ package com.hire10x.createuser.config;
 
 import com.hire10x.createuser.service.JWTService;
 import com.hire10x.createuser.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,11 +25,14 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JWTService jwtService;
     private final UserService userService;
+    private final Timer authenticationTimer;
 
     @Autowired
-    public JwtFilter(JWTService jwtService, UserService userService) {
+    public JwtFilter(JWTService jwtService, UserService userService, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userService = userService;
+        // Time spent authenticating the bearer token, excluding the rest of the filter chain
+        this.authenticationTimer = Timer.builder("jwt.filter").register(meterRegistry);
     }
 
 
@@ -38,20 +44,30 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
 
-        String jwt = authHeader.substring(7);
-        String username = jwtService.extractUserId(jwt);
+        authenticationTimer.record(() -> authenticate(request, authHeader.substring(7)));
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request, String jwt) {
+        // Parsed and verified once per request; repeated tokens come from JWTService's claims cache
+        Claims claims = jwtService.getVerifiedClaims(jwt);
+        if (!jwtService.isAccessToken(claims)) {
+            // Refresh tokens are only good for /api/v1/login/refresh, never as a bearer credential
+            return;
+        }
+        String username = claims.getSubject();
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
-            if (userDetails != null && jwtService.isTokenValid(jwt)) {
+            UserDetails userDetails = userService.loadPrincipalByUserId(username);
+            // A disabled user's access tokens stop working as soon as the status change evicts the cached principal
+            if (userDetails != null && userDetails.isEnabled() && jwtService.isTokenValid(claims)) {
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         username,
-                        userDetails.getPassword(),
+                        null,
                         userDetails.getAuthorities()
                 );
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
         }
-        filterChain.doFilter(request, response);
     }
 }
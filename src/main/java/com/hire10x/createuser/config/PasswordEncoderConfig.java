@@ -0,0 +1,121 @@
+package com.hire10x.createuser.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    private static final String BCRYPT = "bcrypt";
+
+    /**
+     * Hashes new passwords as {bcrypt} at security.password.bcrypt.strength, which must be the same on
+     * every replica. Stored hashes below that cost, or without an encoder prefix, are flagged for upgrade
+     * and rehashed on the next successful login. The startup calibration only logs the cost that meets
+     * the target latency on this host, as a hint for tuning the shared setting.
+     * All hashing runs on the bounded passwordHashingExecutor.
+     */
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password.bcrypt.strength:12}") int strength,
+                                           @Value("${security.password.bcrypt.target-latency:100ms}") Duration targetLatency,
+                                           @Value("${security.password.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${security.password.bcrypt.max-strength:14}") int maxStrength,
+                                           ThreadPoolExecutor passwordHashingExecutor,
+                                           MeterRegistry meterRegistry) {
+        int recommended = calibrate(targetLatency, minStrength, maxStrength);
+        if (recommended != strength) {
+            log.info("BCrypt cost {} from security.password.bcrypt.strength is enforced; {} would meet the {} ms target on this host",
+                    strength, recommended, targetLatency.toMillis());
+        }
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder(strength), passwordHashingExecutor, meterRegistry);
+    }
+
+    // Half the cores by default so hashing never takes all CPU from the read endpoints; the queue cap decides
+    // how much of a burst waits instead of getting a 503
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(@Value("${security.password.hashing.threads:0}") int threads,
+                                                      @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : defaultHashingThreads(Runtime.getRuntime().availableProcessors());
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    static int defaultHashingThreads(int cores) {
+        return Math.max(1, cores / 2);
+    }
+
+    static PasswordEncoder delegatingPasswordEncoder(int cost) {
+        PasswordEncoder bcrypt = new TargetCostBCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        // Hashes written before the {bcrypt} prefix was introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    // Highest cost whose hash time stays within the target; each extra cost step doubles the work
+    static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        long targetNanos = targetLatency.toNanos();
+        hashNanos(minStrength); // warm-up
+
+        int cost = minStrength;
+        long nanos = hashNanos(cost);
+        while (cost < maxStrength && nanos * 2 <= targetNanos) {
+            cost++;
+            nanos = hashNanos(cost);
+        }
+        log.info("BCrypt cost {} hashes in {} ms on this host (target {} ms)",
+                cost, Duration.ofNanos(nanos).toMillis(), targetLatency.toMillis());
+        return cost;
+    }
+
+    private static long hashNanos(int cost) {
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(cost).encode("calibration-Passw0rd@");
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * BCrypt encoder that asks for an upgrade only when a stored hash was made with a lower cost, so
+     * replicas can never rewrite each other's hashes back and forth. Lowering the cost does not
+     * rehash existing passwords; they keep verifying at the cost they were stored with.
+     */
+    static class TargetCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private final int cost;
+
+        TargetCostBCryptPasswordEncoder(int cost) {
+            super(cost);
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null || encodedPassword.length() < 7) {
+                return false;
+            }
+            try {
+                // $2a$12$... -> 12
+                return Integer.parseInt(encodedPassword.substring(4, 6)) < cost;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.hire10x.createuser.config;
 
 
 import com.hire10x.createuser.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -15,7 +17,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,12 +27,17 @@ public class SecurityConfig {
 
     private final UserService userService;
     private final JwtFilter jwtFilter;
+    private final int serverPort;
+    private final int managementPort;
 
     @Autowired
-    @Lazy // To avoid circular references
-    public SecurityConfig(UserService userService, JwtFilter jwtFilter) {
+    public SecurityConfig(@Lazy UserService userService, @Lazy JwtFilter jwtFilter, // Lazy to avoid circular references
+                          @Value("${server.port:8080}") int serverPort,
+                          @Value("${management.server.port:-1}") int managementPort) {
         this.userService = userService;
         this.jwtFilter = jwtFilter;
+        this.serverPort = serverPort;
+        this.managementPort = managementPort;
     }
 
 
@@ -41,7 +47,17 @@ public class SecurityConfig {
         return http
                     .csrf(AbstractHttpConfigurer::disable)
                     .authorizeHttpRequests(request ->request
-                            .requestMatchers("/api/v1/users", "/api/v1/login", "/api/v1/greet")
+                            .requestMatchers("/api/v1/users", "/api/v1/login", "/api/v1/login/token", "/api/v1/login/refresh", "/api/v1/greet")
+                            .permitAll()
+                            // Probed by the orchestrator without a user token
+                            .requestMatchers("/actuator/health")
+                            .permitAll()
+                            // Actuator on its own internal port: scrapes skip httpBasic, so they never queue
+                            // behind logins for a BCrypt permit; the port must not be reachable from outside
+                            .requestMatchers(this::isManagementPortRequest)
+                            .permitAll()
+                            // Downstream services fetch our public keys to verify tokens themselves
+                            .requestMatchers("/.well-known/jwks.json")
                             .permitAll()
                             .anyRequest().authenticated())
                     .httpBasic(Customizer.withDefaults())
@@ -52,11 +68,17 @@ public class SecurityConfig {
 
 
 
+    private boolean isManagementPortRequest(HttpServletRequest request) {
+        return managementPort > 0 && managementPort != serverPort && request.getLocalPort() == managementPort;
+    }
+
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
+        // Rehashes the stored password on login when its cost differs from the configured one
+        provider.setUserDetailsPasswordService(userService);
         return provider;
     }
 
@@ -65,10 +87,4 @@ public class SecurityConfig {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
-
 }
@@ -1,8 +1,16 @@
 package com.hire10x.createuser.controller;
 
+import com.hire10x.createuser.dto.RefreshTokenRequestDto;
+import com.hire10x.createuser.dto.TokenResponseDto;
+import com.hire10x.createuser.exceptions.InvalidRefreshTokenException;
+import com.hire10x.createuser.exceptions.PasswordHashingRejectedException;
 import com.hire10x.createuser.model.UserLoginModel;
 import com.hire10x.createuser.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,4 +28,26 @@ public class AuthUser {
     public String login(@RequestBody UserLoginModel userLoginModel){
         return userService.verify(userLoginModel);
     }
+
+    // Same credentials as /api/v1/login, answered with an access token and a refresh token
+    @PostMapping("/api/v1/login/token")
+    public ResponseEntity<TokenResponseDto> token(@RequestBody UserLoginModel userLoginModel){
+        return new ResponseEntity<>(userService.issueTokens(userLoginModel), HttpStatus.OK);
+    }
+
+    // Trades a refresh token for a fresh pair without a password check
+    @PostMapping("/api/v1/login/refresh")
+    public ResponseEntity<TokenResponseDto> refresh(@RequestBody RefreshTokenRequestDto request){
+        return new ResponseEntity<>(userService.refreshTokens(request.getRefreshToken()), HttpStatus.OK);
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<String> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<String> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.UNAUTHORIZED);
+    }
 }
@@ -0,0 +1,30 @@
+package com.hire10x.createuser.controller;
+
+import com.hire10x.createuser.service.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    // Public keys for verifying our tokens locally; cacheable, but short enough to pick up a rotation.
+    // Refresh tokens are signed with the same keys, so verifiers must also require aud=user-service
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(keyRing.publicJwks());
+    }
+}
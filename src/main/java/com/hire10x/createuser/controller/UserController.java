@@ -1,42 +1,135 @@
 package com.hire10x.createuser.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hire10x.createuser.cache.IdempotencyStore;
+import com.hire10x.createuser.dto.BulkImportResponseDto;
+import com.hire10x.createuser.dto.UserBatchResponseDto;
 import com.hire10x.createuser.dto.UserModelDto;
 import com.hire10x.createuser.dto.UserResponseDto;
 import com.hire10x.createuser.dto.UserStatusDto;
+import com.hire10x.createuser.exceptions.BatchLimitExceededException;
+import com.hire10x.createuser.exceptions.DuplicateEntryException;
+import com.hire10x.createuser.exceptions.IdempotencyKeyMismatchException;
+import com.hire10x.createuser.exceptions.IdempotentRequestInProgressException;
+import com.hire10x.createuser.exceptions.InvalidCursorException;
+import com.hire10x.createuser.exceptions.InvalidPageSizeException;
+import com.hire10x.createuser.exceptions.PasswordHashingRejectedException;
 import com.hire10x.createuser.exceptions.UserNotFoundException;
 import com.hire10x.createuser.model.UserModel;
+import com.hire10x.createuser.service.UserExportService;
+import com.hire10x.createuser.service.UserImportService;
 import com.hire10x.createuser.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 public class UserController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private UserService userService;
+    private UserImportService userImportService;
+    private UserExportService userExportService;
+    private IdempotencyStore idempotencyStore;
+    private ObjectMapper objectMapper;
+    private int batchLookupMaxIds;
+    private Duration exportTimeout;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService, UserExportService userExportService,
+                          IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                          @Value("${user.batch-lookup.max-ids:100}") int batchLookupMaxIds,
+                          @Value("${user.export.timeout:30m}") Duration exportTimeout) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.batchLookupMaxIds = batchLookupMaxIds;
+        this.exportTimeout = exportTimeout;
     }
 
+    // With an Idempotency-Key a retried signup gets the original response instead of a duplicate-entry 400
     @PostMapping("/api/v1/users")
-    public ResponseEntity<String> createUser(@Valid @RequestBody UserModel user){
+    public ResponseEntity<String> createUser(@Valid @RequestBody UserModel user,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey){
+        if (idempotencyKey == null) {
+            try {
+                return addUser(user);
+            } catch (RuntimeException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        // Fingerprinted before addUser replaces the password with its hash
+        IdempotencyStore.Outcome outcome = idempotencyStore.execute(idempotencyKey, fingerprint(user), () -> {
+            ResponseEntity<String> response;
+            try {
+                response = addUser(user);
+            } catch (RuntimeException e) {
+                // Not the client's fault, so a 5xx: the store does not keep it and a retry with the key runs again
+                response = new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            return new IdempotencyStore.StoredResponse(response.getStatusCode().value(), response.getBody());
+        });
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(outcome.response().status());
+        if (outcome.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(outcome.response().body());
+    }
+
+    private ResponseEntity<String> addUser(UserModel user) {
         try {
             String userId = userService.addUser(user);
             return new ResponseEntity<>(userId, HttpStatus.CREATED);
-        } catch (RuntimeException e) {
+        } catch (DuplicateEntryException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (PasswordHashingRejectedException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
         }
+    }
+
+    private String fingerprint(UserModel user) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(user));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
 
 
+    // Accepts a JSON array or NDJSON; both are parsed row by row as the body streams in
+    @PostMapping(value = "/api/v1/users/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResponseDto> createUsers(HttpServletRequest request) throws IOException {
+        try (MappingIterator<UserModel> users = objectMapper.readerFor(UserModel.class).readValues(request.getInputStream())) {
+            BulkImportResponseDto result = userImportService.importUsers(users);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        }
     }
 
 
@@ -65,20 +158,62 @@ public class UserController {
         return new ResponseEntity<>(user, HttpStatus.OK);
     }
 
+    // One IN query for many ids; POST because the id list can outgrow a URL
+    @PostMapping("/api/v1/users/search/batch")
+    public ResponseEntity<UserBatchResponseDto> fetchUsersByUserIds(@RequestBody List<String> userIds){
+        if (userIds.size() > batchLookupMaxIds) {
+            throw new BatchLimitExceededException("At most " + batchLookupMaxIds + " userIds can be fetched per request");
+        }
+        UserBatchResponseDto users = userService.getUsersByUserIds(userIds);
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+
     @GetMapping("/api/v1/users/search")
     public ResponseEntity<UserResponseDto> fetchAllUsers(
             @RequestParam(required = false) String role,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String companyId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size){
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeCount){
 
-        UserResponseDto allUsers = userService.getAllUsers(role, status, companyId, page, size);
+        if (size < 1) {
+            throw new InvalidPageSizeException("size must be at least 1");
+        }
+        // Passing cursor (empty for the first page) switches from offset paging to keyset paging
+        UserResponseDto allUsers = cursor != null
+                ? userService.getUsersAfter(role, status, companyId, cursor, size, includeCount)
+                : userService.getAllUsers(role, status, companyId, page, size);
         return new ResponseEntity<>(allUsers, HttpStatus.OK);
 
     }
 
 
+    // Streams on an async thread, so the response starts before the first row is read
+    @GetMapping("/api/v1/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String companyId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request){
+
+        // Applied when the streaming body starts async processing; no other endpoint gets this timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+
+        UserExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? UserExportService.Format.CSV
+                : UserExportService.Format.NDJSON;
+        MediaType contentType = exportFormat == UserExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+
+        StreamingResponseBody body = out -> userExportService.export(role, status, companyId, exportFormat, out);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+
     @GetMapping("/api/v1/greet")
     public String greet(){
         return "Welcome to training-user-service app!!!";
@@ -90,6 +225,31 @@ public class UserController {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(BatchLimitExceededException.class)
+    public ResponseEntity<String> handleBatchLimitExceededException(BatchLimitExceededException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<String> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<String> handleIdempotentRequestInProgressException(IdempotentRequestInProgressException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidPageSizeException.class)
+    public ResponseEntity<String> handleInvalidPageSizeException(InvalidPageSizeException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public Map<String, String> handleValidationExceptions(MethodArgumentNotValidException ex) {
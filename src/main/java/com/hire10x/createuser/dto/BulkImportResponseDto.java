@@ -0,0 +1,16 @@
+package com.hire10x.createuser.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportResponseDto {
+    private long created;
+    private long rejected;
+    private List<BulkImportRowResult> rows;
+}
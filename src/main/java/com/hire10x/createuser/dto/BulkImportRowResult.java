@@ -0,0 +1,24 @@
+package com.hire10x.createuser.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportRowResult {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE,
+        FAILED
+    }
+
+    // Zero-based position of the row in the request body
+    private int index;
+    private Status status;
+    private String userId;
+    private String message;
+}
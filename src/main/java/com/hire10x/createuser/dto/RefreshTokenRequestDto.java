@@ -0,0 +1,8 @@
+package com.hire10x.createuser.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequestDto {
+    String refreshToken;
+}
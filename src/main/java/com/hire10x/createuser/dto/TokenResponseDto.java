@@ -0,0 +1,16 @@
+package com.hire10x.createuser.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponseDto {
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+    // Access token lifetime in seconds
+    private long expiresIn;
+}
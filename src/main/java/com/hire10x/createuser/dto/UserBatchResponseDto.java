@@ -0,0 +1,16 @@
+package com.hire10x.createuser.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchResponseDto {
+    private Map<String, UserModelDto> users;
+    private List<String> missing;
+}
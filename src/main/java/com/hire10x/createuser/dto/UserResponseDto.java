@@ -10,8 +10,15 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 public class UserResponseDto {
+    // count and pageCount are -1 when a cursor search skipped the count query; currentPage is -1 for cursor searches
     private long count;
     private int pageCount;
     private int currentPage;
     private List<UserModelDto> users;
+    // Opaque cursor for the next keyset page, null when there are no more users or offset paging was used
+    private String nextCursor;
+
+    public UserResponseDto(long count, int pageCount, int currentPage, List<UserModelDto> users) {
+        this(count, pageCount, currentPage, users, null);
+    }
 }
@@ -0,0 +1,8 @@
+package com.hire10x.createuser.exceptions;
+
+public class BatchLimitExceededException extends RuntimeException {
+
+    public BatchLimitExceededException(String message) {
+        super(message);
+    }
+}
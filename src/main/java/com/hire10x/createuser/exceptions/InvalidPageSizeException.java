@@ -0,0 +1,7 @@
+package com.hire10x.createuser.exceptions;
+
+public class InvalidPageSizeException extends RuntimeException {
+    public InvalidPageSizeException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.hire10x.createuser.mapper;
 
 import com.hire10x.createuser.dto.UserModelDto;
 import com.hire10x.createuser.model.UserModel;
+import com.hire10x.createuser.repository.UserProfileView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -24,4 +25,8 @@ public interface UserModelMapper {
 
     List<UserModelDto> toDto(List<UserModel> userModelList);
 
+    UserModelDto toDto(UserProfileView profile);
+
+    List<UserModelDto> profilesToDto(List<UserProfileView> profiles);
+
 }
@@ -19,12 +19,24 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "USERS_TABLE")
+@Table(name = "USERS_TABLE", indexes = {
+        // Tenant-scoped search: equality filters first, then the (created_at, id) keyset order
+        @Index(name = "idx_users_customer_status_role_created", columnList = "customer_id, status, role, created_at, id"),
+        // Tenant + status only: with role missing, the index above could not supply the created_at order
+        @Index(name = "idx_users_customer_status_created", columnList = "customer_id, status, created_at, id"),
+        // Tenant + role only, for the same reason
+        @Index(name = "idx_users_customer_role_created", columnList = "customer_id, role, created_at, id"),
+        // Tenant-scoped search without a status filter
+        @Index(name = "idx_users_customer_created", columnList = "customer_id, created_at, id"),
+        // Unfiltered keyset paging
+        @Index(name = "idx_users_created", columnList = "created_at, id")
+})
 public class UserModel {
 
     @Id
+    // Each instance reserves blocks of 50 ids per round-trip; see hibernate.id.optimizer.pooled.preferred
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
-    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", initialValue = 1000, allocationSize = 1)
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", initialValue = 1000, allocationSize = 50)
     private Long id;
 
 
@@ -8,10 +8,34 @@ import java.util.Collections;
 
 public class UserPrinciple implements UserDetails {
 
-    private transient UserModel user;
+    public static final String ENABLED_STATUS = "ENABLED";
+
+    private final String userId;
+    private final transient String password;
+    private final boolean enabled;
 
     public UserPrinciple(UserModel user) {
-        this.user = user;
+        this(user.getUserId(), user.getPassword(), isEnabledStatus(user.getStatus()));
+    }
+
+    public UserPrinciple(String userId, String password) {
+        this(userId, password, true);
+    }
+
+    public UserPrinciple(String userId, String password, boolean enabled) {
+        this.userId = userId;
+        this.password = password;
+        this.enabled = enabled;
+    }
+
+    // Snapshot kept by UserPrincipalCache; token-authenticated requests never need the password hash
+    public static UserPrinciple withoutPassword(String userId, boolean enabled) {
+        return new UserPrinciple(userId, null, enabled);
+    }
+
+    // Any status other than ENABLED, e.g. DISABLED, blocks login, token refresh and bearer authentication
+    public static boolean isEnabledStatus(String status) {
+        return ENABLED_STATUS.equalsIgnoreCase(status);
     }
 
     @Override
@@ -21,12 +45,12 @@ public class UserPrinciple implements UserDetails {
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getUserId();
+        return userId;
     }
 
     @Override
@@ -46,6 +70,6 @@ public class UserPrinciple implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 }
@@ -0,0 +1,7 @@
+package com.hire10x.createuser.repository;
+
+/**
+ * The columns authentication reads: who the user is, the stored hash and the account status.
+ */
+public record UserCredentialsView(String userId, String password, String status) {
+}
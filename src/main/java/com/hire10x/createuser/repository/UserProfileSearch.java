@@ -0,0 +1,27 @@
+package com.hire10x.createuser.repository;
+
+import com.hire10x.createuser.model.UserModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Specification-driven searches that select UserProfileView rows instead of entities. Spring Data's
+ * findBy(Specification, ...) can only return entities, so this fragment builds the criteria query.
+ */
+public interface UserProfileSearch {
+
+    Page<UserProfileView> searchProfiles(Specification<UserModel> spec, Pageable pageable);
+
+    List<UserProfileView> searchProfiles(Specification<UserModel> spec, Sort sort, int limit);
+
+    /**
+     * Forward-only stream for exports. The fetch size is set on this query alone: Integer.MIN_VALUE
+     * makes Connector/J stream rows as the server sends them instead of buffering the whole result.
+     */
+    Stream<UserProfileView> streamProfiles(String role, String status, String customerId, int fetchSize);
+}
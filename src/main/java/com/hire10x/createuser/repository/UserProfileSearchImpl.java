@@ -0,0 +1,90 @@
+package com.hire10x.createuser.repository;
+
+import com.hire10x.createuser.model.UserModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class UserProfileSearchImpl implements UserProfileSearch {
+
+    private final EntityManager entityManager;
+
+    UserProfileSearchImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<UserProfileView> searchProfiles(Specification<UserModel> spec, Pageable pageable) {
+        TypedQuery<UserProfileView> query = query(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        // Skips the count when the page is the first and is not full, as SimpleJpaRepository does
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<UserProfileView> searchProfiles(Specification<UserModel> spec, Sort sort, int limit) {
+        return query(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<UserProfileView> streamProfiles(String role, String status, String customerId, int fetchSize) {
+        return entityManager.createQuery(UserProfileView.SELECT
+                        + " WHERE (:customerId IS NULL OR u.customerId = :customerId)"
+                        + " AND (:status IS NULL OR u.status = :status)"
+                        + " AND (:role IS NULL OR u.role = :role)"
+                        + " ORDER BY u.createdAt, u.id", UserProfileView.class)
+                .setParameter("role", role)
+                .setParameter("status", status)
+                .setParameter("customerId", customerId)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private TypedQuery<UserProfileView> query(Specification<UserModel> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserProfileView> query = cb.createQuery(UserProfileView.class);
+        Root<UserModel> root = query.from(UserModel.class);
+        query.select(cb.construct(UserProfileView.class,
+                root.get("id"), root.get("userId"), root.get("firstName"), root.get("lastName"),
+                root.get("email"), root.get("phone"), root.get("middleName"), root.get("designation"),
+                root.get("role"), root.get("customerId"), root.get("createdAt"), root.get("updatedAt")));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<UserModel> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<UserModel> root = query.from(UserModel.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,26 @@
+package com.hire10x.createuser.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row for profile, search and export responses: the UserModelDto columns plus the id that
+ * keyset cursors need. Selected with a constructor expression, so Hibernate never creates a managed
+ * entity, a dirty-checking snapshot or a copy of the password hash for it.
+ */
+public record UserProfileView(Long id,
+                              String userId,
+                              String firstName,
+                              String lastName,
+                              String email,
+                              String phone,
+                              String middleName,
+                              String designation,
+                              String role,
+                              String customerId,
+                              LocalDateTime createdAt,
+                              LocalDateTime updatedAt) {
+
+    static final String SELECT = "SELECT new com.hire10x.createuser.repository.UserProfileView("
+            + "u.id, u.userId, u.firstName, u.lastName, u.email, u.phone, u.middleName,"
+            + " u.designation, u.role, u.customerId, u.createdAt, u.updatedAt) FROM UserModel u";
+}
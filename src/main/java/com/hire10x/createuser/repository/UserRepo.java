@@ -3,13 +3,58 @@ package com.hire10x.createuser.repository;
 import com.hire10x.createuser.model.UserModel;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface UserRepo extends JpaRepository<UserModel, String> {
+public interface UserRepo extends JpaRepository<UserModel, String>, JpaSpecificationExecutor<UserModel>, UserProfileSearch {
 
+    // Managed entity for the update paths; reads below select projections and never enter the persistence context
     Optional<UserModel> findByUserId(String userId);
 
+    @Query(UserProfileView.SELECT + " WHERE u.userId = :userId")
+    Optional<UserProfileView> findProfileByUserId(@Param("userId") String userId);
+
+    @Query(UserProfileView.SELECT + " WHERE u.userId IN :userIds")
+    List<UserProfileView> findProfilesByUserIdIn(@Param("userIds") Collection<String> userIds);
+
+    @Query("SELECT new com.hire10x.createuser.repository.UserCredentialsView(u.userId, u.password, u.status)"
+            + " FROM UserModel u WHERE u.userId = :userId")
+    Optional<UserCredentialsView> findCredentialsByUserId(@Param("userId") String userId);
+
+    // Signup pre-check served by the unique email and phone indexes; a null value matches nothing
+    @Query("SELECT COUNT(u) > 0 FROM UserModel u WHERE u.email = :email OR u.phone = :phone")
+    boolean existsByEmailOrPhone(@Param("email") String email, @Param("phone") String phone);
+
+    @Query("SELECT u.email FROM UserModel u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.phone FROM UserModel u WHERE u.phone IN :phones")
+    Set<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
+    boolean existsByUserId(String userId);
+
+    // Bulk update, so @UpdateTimestamp does not fire and updatedAt is passed in
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserModel u SET u.status = :status, u.updatedAt = :updatedAt"
+            + " WHERE u.userId = :userId AND u.status <> :status")
+    int updateStatusIfChanged(@Param("userId") String userId, @Param("status") String status,
+                              @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserModel u SET u.password = :password WHERE u.userId = :userId")
+    int updatePassword(@Param("userId") String userId, @Param("password") String password);
+
 }
@@ -0,0 +1,47 @@
+package com.hire10x.createuser.repository;
+
+import com.hire10x.createuser.model.UserModel;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<UserModel> hasCustomerId(String customerId) {
+        return equalsIfPresent("customerId", customerId);
+    }
+
+    public static Specification<UserModel> hasRole(String role) {
+        return equalsIfPresent("role", role);
+    }
+
+    public static Specification<UserModel> hasStatus(String status) {
+        return equalsIfPresent("status", status);
+    }
+
+    // Empty filters match everything, mirroring the optional request params on /api/v1/users/search
+    public static Specification<UserModel> matching(String role, String status, String customerId) {
+        return Specification.where(hasCustomerId(customerId))
+                .and(hasStatus(status))
+                .and(hasRole(role));
+    }
+
+    // Seek predicate for keyset paging: rows strictly after (createdAt, id) in (createdAt ASC, id ASC) order
+    public static Specification<UserModel> after(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("createdAt"), createdAt),
+                cb.and(
+                        cb.equal(root.get("createdAt"), createdAt),
+                        cb.greaterThan(root.get("id"), id)));
+    }
+
+    private static Specification<UserModel> equalsIfPresent(String attribute, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+}
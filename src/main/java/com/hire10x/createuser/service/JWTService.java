@@ -1,76 +1,213 @@
 package com.hire10x.createuser.service;
 
-import com.hire10x.createuser.exceptions.JWTServiceException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hire10x.createuser.exceptions.InvalidRefreshTokenException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JWTService {
 
-    private String secretkey = "";
+    // Both token kinds are signed by the published keys, so the aud claim is what tells them apart; a service
+    // verifying our tokens against the JWK set must require ACCESS_TOKEN_AUDIENCE
+    static final String ACCESS_TOKEN_AUDIENCE = "user-service";
+    static final String REFRESH_TOKEN_AUDIENCE = "user-service/refresh";
 
-    public JWTService() throws JWTServiceException {
+    private final JwtKeyRing keyRing;
+    // Immutable and thread-safe; looks up the verification key by the token's kid header on every parse
+    private final JwtParser jwtParser;
 
-        try {
-            KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey sk = keyGen.generateKey();
-            secretkey = Base64.getEncoder().encodeToString(sk.getEncoded());
-        } catch (NoSuchAlgorithmException e) {
-            throw new JWTServiceException("Failed to generate secret key for JWT.", e);
-        }
+    // Verified claims keyed by a SHA-256 of the token, each entry evicted at the token's exp claim
+    private final Cache<String, Claims> verifiedClaims;
+
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+
+    private final Timer signTimer;
+    private final Timer parseTimer;
+
+    public JWTService(JwtKeyRing keyRing,
+                      @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize,
+                      @Value("${jwt.access-token.ttl:30m}") Duration accessTokenTtl,
+                      @Value("${jwt.refresh-token.ttl:7d}") Duration refreshTokenTtl,
+                      MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+
+        jwtParser = Jwts.parser()
+                .keyLocator(new KeyRingLocator(keyRing))
+                .build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt.claims");
+        // A reload may have dropped a key, so claims verified with it must not outlive it in the cache
+        keyRing.addReloadListener(verifiedClaims::invalidateAll);
+
+        signTimer = Timer.builder("jwt.sign").register(meterRegistry);
+        // Only cache misses reach the parser, so this is the cost of actual signature verification
+        parseTimer = Timer.builder("jwt.parse").register(meterRegistry);
     }
 
     public String generateToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
+        return signTimer.record(() -> sign(username, ACCESS_TOKEN_AUDIENCE, accessTokenTtl));
+    }
+
+    public String generateRefreshToken(String username) {
+        return signTimer.record(() -> sign(username, REFRESH_TOKEN_AUDIENCE, refreshTokenTtl));
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    private String sign(String username, String audience, Duration ttl) {
+        long now = System.currentTimeMillis();
+        JwtKeyRing.SigningKey key = keyRing.activeKey();
         return Jwts.builder()
+                    .header()
+                    .keyId(key.id())
+                    .and()
                     .claims()
-                    .add(claims)
                     .subject(username)
-                    .issuedAt(new Date(System.currentTimeMillis()))
-                    .expiration(new Date(System.currentTimeMillis() + 60 * 60 * 30))
+                    .audience().add(audience).and()
+                    .issuedAt(new Date(now))
+                    .expiration(new Date(now + ttl.toMillis()))
                     .and()
-                    .signWith(getKey())
+                    .signWith(key.signingKey())
                     .compact();
     }
 
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretkey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public String extractUserId(String jwt) {
+        return getVerifiedClaims(jwt).getSubject();
     }
 
-    private SecretKey generateKey() {
-        byte[] decodedKey = Base64.getDecoder().decode(secretkey);
-        return Keys.hmacShaKeyFor(decodedKey);
+    /**
+     * Verifies the token signature and returns its claims. A token is only parsed and verified the
+     * first time it is seen; later calls with the same token are served from the cache until it expires.
+     */
+    public Claims getVerifiedClaims(String jwt) {
+        return verifiedClaims.get(tokenHash(jwt), hash -> getClaims(jwt));
     }
 
-    public String extractUserId(String jwt) {
-        Claims claims = getClaims(jwt);
+    private Claims getClaims(String jwt) {
+        return parseTimer.record(() -> jwtParser
+                .parseSignedClaims(jwt)
+                .getPayload());
+    }
+
+    /**
+     * Verifies a refresh token and returns its subject. Access tokens, tokens without the refresh
+     * audience, expired tokens and tokens signed by another key are all rejected with
+     * {@link InvalidRefreshTokenException}.
+     */
+    public String extractRefreshTokenUserId(String refreshToken) {
+        Claims claims;
+        try {
+            claims = getVerifiedClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidRefreshTokenException("Invalid refresh token", e);
+        }
+        if (!isRefreshToken(claims) || !isTokenValid(claims)) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
         return claims.getSubject();
     }
 
-    private Claims getClaims(String jwt) {
-        return Jwts.parser()
-                .verifyWith(generateKey())
-                .build()
-                .parseSignedClaims(jwt)
-                .getPayload();
+    // Tokens issued without an audience, before the claim was added, are neither and must log in again
+    public boolean isAccessToken(Claims claims) {
+        return hasAudience(claims, ACCESS_TOKEN_AUDIENCE);
+    }
+
+    private static boolean isRefreshToken(Claims claims) {
+        return hasAudience(claims, REFRESH_TOKEN_AUDIENCE);
+    }
+
+    private static boolean hasAudience(Claims claims, String audience) {
+        Set<String> audiences = claims.getAudience();
+        return audiences != null && audiences.contains(audience);
     }
 
     public boolean isTokenValid(String jwt) {
-        Claims claims = getClaims(jwt);
+        return isTokenValid(getVerifiedClaims(jwt));
+    }
+
+    public boolean isTokenValid(Claims claims) {
         return claims.getExpiration().after(Date.from(Instant.now()));
     }
 
+    private static String tokenHash(String jwt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class KeyRingLocator extends LocatorAdapter<Key> {
+
+        private final JwtKeyRing keyRing;
+
+        KeyRingLocator(JwtKeyRing keyRing) {
+            this.keyRing = keyRing;
+        }
+
+        @Override
+        protected Key locate(ProtectedHeader header) {
+            String keyId = header.getKeyId();
+            // Tokens signed before key ids were introduced can only have come from the active key
+            JwtKeyRing.SigningKey key = keyId == null ? keyRing.activeKey() : keyRing.findKey(keyId);
+            if (key == null) {
+                throw new InvalidKeyException("Unknown signing key id: " + keyId);
+            }
+            return key.verificationKey();
+        }
+    }
+
+    private static class ExpireAtTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
 }
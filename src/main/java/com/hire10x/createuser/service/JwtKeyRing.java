@@ -0,0 +1,280 @@
+package com.hire10x.createuser.service;
+
+import com.hire10x.createuser.exceptions.JWTServiceException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT signing keys shared by every replica, read from a properties file:
+ * <pre>
+ * active=2024-11
+ * 2024-11.alg=EdDSA
+ * 2024-11.private=&lt;base64 PKCS#8 private key&gt;
+ * 2024-11.public=&lt;base64 X.509 public key&gt;
+ * 2024-05=&lt;base64 HMAC secret, at least 256 bits, still accepted for verification&gt;
+ * </pre>
+ * A bare entry is an HMAC secret; ES256 (P-256) and EdDSA (Ed25519) keys are given as an
+ * {@code alg}/{@code private}/{@code public} triple, and a key without {@code private} only verifies.
+ * Tokens are signed with the {@code active} key and carry its id in the {@code kid} header; every key
+ * in the file verifies. To rotate, add the new key, point {@code active} at it once all replicas have
+ * picked it up, and drop the old key after the longest token lifetime. The file is polled and swapped
+ * in without a restart; a file that fails to parse is logged and the previous keys stay in use.
+ * Public keys are published as a JWK set so other services can verify tokens without calling us.
+ * Without a file a random per-JVM key is used, which only suits a single instance.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    static final String ACTIVE_PROPERTY = "active";
+    static final String EPHEMERAL_KEY_ID = "local";
+
+    public static final String HS256 = "HS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    private static final String ALGORITHM_SUFFIX = ".alg";
+    private static final String PRIVATE_KEY_SUFFIX = ".private";
+    private static final String PUBLIC_KEY_SUFFIX = ".public";
+
+    // signingKey is null for verify-only keys; for HMAC both fields hold the same secret
+    public record SigningKey(String id, String algorithm, Key signingKey, Key verificationKey) {
+    }
+
+    private record Snapshot(SigningKey active, Map<String, SigningKey> keys, String jwks, byte[] source) {
+    }
+
+    private final Path path;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService reloader;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.key-ring.path:}") String path,
+                      @Value("${jwt.key-ring.reload-interval:30s}") Duration reloadInterval,
+                      @Value("${jwt.key-ring.algorithm:HS256}") String ephemeralAlgorithm) throws JWTServiceException {
+        if (path.isBlank()) {
+            log.warn("jwt.key-ring.path is not set; signing with a random {} key, tokens will not survive a restart or work on other replicas",
+                    ephemeralAlgorithm);
+            this.path = null;
+            this.snapshot = ephemeralSnapshot(ephemeralAlgorithm);
+            this.reloader = null;
+            return;
+        }
+        this.path = Path.of(path);
+        try {
+            this.snapshot = load(Files.readAllBytes(this.path));
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            throw new JWTServiceException("Failed to load JWT key ring from " + path, e);
+        }
+        log.info("JWT key ring loaded from {}: active key {}, keys {}", path, snapshot.active().id(), snapshot.keys().keySet());
+
+        this.reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-key-ring-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reload, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private JwtKeyRing(Snapshot snapshot) {
+        this.path = null;
+        this.snapshot = snapshot;
+        this.reloader = null;
+    }
+
+    // Single-instance key ring for tests and benchmarks
+    public static JwtKeyRing ephemeral() throws JWTServiceException {
+        return ephemeral(HS256);
+    }
+
+    public static JwtKeyRing ephemeral(String algorithm) throws JWTServiceException {
+        return new JwtKeyRing(ephemeralSnapshot(algorithm));
+    }
+
+    public SigningKey activeKey() {
+        return snapshot.active();
+    }
+
+    // Null when the id is unknown, e.g. a key that has been rotated out
+    public SigningKey findKey(String keyId) {
+        return snapshot.keys().get(keyId);
+    }
+
+    // {"keys":[...]} with the public half of every asymmetric key; HMAC secrets are never published
+    public String publicJwks() {
+        return snapshot.jwks();
+    }
+
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Re-reads the key file and swaps the keys in when its content changed. Called on a schedule;
+     * returns whether new keys were installed.
+     */
+    public boolean reload() {
+        if (path == null) {
+            return false;
+        }
+        try {
+            byte[] source = Files.readAllBytes(path);
+            if (Arrays.equals(source, snapshot.source())) {
+                return false;
+            }
+            snapshot = load(source);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.error("Failed to reload JWT key ring from {}, keeping the current keys", path, e);
+            return false;
+        }
+        log.info("JWT key ring reloaded from {}: active key {}, keys {}", path, snapshot.active().id(), snapshot.keys().keySet());
+        reloadListeners.forEach(Runnable::run);
+        return true;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    private static Snapshot load(byte[] source) throws IOException, GeneralSecurityException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(new String(source, StandardCharsets.UTF_8)));
+
+        Set<String> ids = new TreeSet<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.equals(ACTIVE_PROPERTY)) {
+                ids.add(keyId(name));
+            }
+        }
+        Map<String, SigningKey> keys = new TreeMap<>();
+        for (String id : ids) {
+            keys.put(id, parseKey(id, properties));
+        }
+
+        SigningKey active = keys.get(properties.getProperty(ACTIVE_PROPERTY));
+        if (active == null || active.signingKey() == null) {
+            throw new IllegalArgumentException("Key ring must name an 'active' key that is defined in the file with its private key");
+        }
+        return snapshot(active, keys, source);
+    }
+
+    private static String keyId(String propertyName) {
+        for (String suffix : List.of(ALGORITHM_SUFFIX, PRIVATE_KEY_SUFFIX, PUBLIC_KEY_SUFFIX)) {
+            if (propertyName.endsWith(suffix)) {
+                return propertyName.substring(0, propertyName.length() - suffix.length());
+            }
+        }
+        return propertyName;
+    }
+
+    private static SigningKey parseKey(String id, Properties properties) throws GeneralSecurityException {
+        String secret = properties.getProperty(id);
+        if (secret != null) {
+            Key key = Keys.hmacShaKeyFor(decode(secret));
+            return new SigningKey(id, HS256, key, key);
+        }
+
+        String algorithm = properties.getProperty(id + ALGORITHM_SUFFIX);
+        String publicKey = properties.getProperty(id + PUBLIC_KEY_SUFFIX);
+        if (algorithm == null || publicKey == null) {
+            throw new IllegalArgumentException("Key " + id + " needs either a secret or both " + ALGORITHM_SUFFIX + " and " + PUBLIC_KEY_SUFFIX);
+        }
+        KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm(algorithm));
+        String privateKey = properties.getProperty(id + PRIVATE_KEY_SUFFIX);
+        return new SigningKey(id, algorithm,
+                privateKey == null ? null : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(privateKey))),
+                keyFactory.generatePublic(new X509EncodedKeySpec(decode(publicKey))));
+    }
+
+    private static String keyFactoryAlgorithm(String algorithm) {
+        return switch (algorithm) {
+            case ES256 -> "EC";
+            case EDDSA -> "Ed25519";
+            default -> throw new IllegalArgumentException("Unsupported JWT signing algorithm: " + algorithm);
+        };
+    }
+
+    private static byte[] decode(String base64) {
+        return Base64.getDecoder().decode(base64.trim());
+    }
+
+    private static Snapshot snapshot(SigningKey active, Map<String, SigningKey> keys, byte[] source) {
+        StringJoiner jwks = new StringJoiner(",", "{\"keys\":[", "]}");
+        for (SigningKey key : keys.values()) {
+            if (key.verificationKey() instanceof PublicKey publicKey) {
+                PublicJwk<?> jwk = Jwks.builder()
+                        .key(publicKey)
+                        .id(key.id())
+                        .algorithm(key.algorithm())
+                        .publicKeyUse("sig")
+                        .build();
+                jwks.add(Jwks.json(jwk));
+            }
+        }
+        return new Snapshot(active, Collections.unmodifiableMap(keys), jwks.toString(), source);
+    }
+
+    private static Snapshot ephemeralSnapshot(String algorithm) throws JWTServiceException {
+        try {
+            SigningKey key;
+            if (HS256.equals(algorithm)) {
+                Key secret = Keys.hmacShaKeyFor(KeyGenerator.getInstance("HmacSHA256").generateKey().getEncoded());
+                key = new SigningKey(EPHEMERAL_KEY_ID, HS256, secret, secret);
+            } else {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance(keyFactoryAlgorithm(algorithm));
+                if (ES256.equals(algorithm)) {
+                    generator.initialize(new ECGenParameterSpec("secp256r1"));
+                }
+                KeyPair pair = generator.generateKeyPair();
+                key = new SigningKey(EPHEMERAL_KEY_ID, algorithm, pair.getPrivate(), pair.getPublic());
+            }
+            return snapshot(key, Map.of(key.id(), key), new byte[0]);
+        } catch (GeneralSecurityException e) {
+            throw new JWTServiceException("Failed to generate " + algorithm + " key for JWT.", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.hire10x.createuser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hire10x.createuser.dto.UserModelDto;
+import com.hire10x.createuser.mapper.UserModelMapper;
+import com.hire10x.createuser.repository.UserProfileView;
+import com.hire10x.createuser.repository.UserRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the user directory straight from a forward-only JDBC cursor. Rows are read-only projections
+ * that never enter the persistence context, and each one is written before the next is read, so
+ * memory stays flat no matter how many users match.
+ */
+@Service
+public class UserExportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final String CSV_HEADER =
+            "userId,firstName,middleName,lastName,email,phone,designation,role,customerId,createdAt,updatedAt\n";
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final UserRepo userRepo;
+    private final UserModelMapper userModelMapper;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public UserExportService(UserRepo userRepo, UserModelMapper userModelMapper, ObjectMapper objectMapper,
+                             @Value("${user.export.fetch-size:-2147483648}") int fetchSize) {
+        this.userRepo = userRepo;
+        this.userModelMapper = userModelMapper;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(String role, String status, String companyId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.flush();
+        }
+
+        try (Stream<UserProfileView> users = userRepo.streamProfiles(emptyToNull(role), emptyToNull(status), emptyToNull(companyId), fetchSize)) {
+            Iterator<UserProfileView> rows = users.iterator();
+            long written = 0;
+            while (rows.hasNext()) {
+                UserModelDto dto = userModelMapper.toDto(rows.next());
+
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+
+                written++;
+                if (written == 1 || written % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, UserModelDto dto) throws IOException {
+        Object[] values = {dto.getUserId(), dto.getFirstName(), dto.getMiddleName(), dto.getLastName(), dto.getEmail(),
+                dto.getPhone(), dto.getDesignation(), dto.getRole(), dto.getCustomerId(), dto.getCreatedAt(), dto.getUpdatedAt()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,196 @@
+package com.hire10x.createuser.service;
+
+import com.hire10x.createuser.config.BoundedPasswordEncoder;
+import com.hire10x.createuser.dto.BulkImportResponseDto;
+import com.hire10x.createuser.dto.BulkImportRowResult;
+import com.hire10x.createuser.dto.BulkImportRowResult.Status;
+import com.hire10x.createuser.exceptions.PasswordHashingRejectedException;
+import com.hire10x.createuser.model.UserModel;
+import com.hire10x.createuser.model.UserPrinciple;
+import com.hire10x.createuser.repository.UserRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users from a bulk payload in chunks: rows are validated, checked for duplicate email/phone
+ * against the payload and the database with one IN query per chunk, hashed in parallel and inserted
+ * with JDBC batching in one transaction per chunk. Every row gets its own result.
+ */
+@Service
+public class UserImportService {
+
+    private final UserRepo userRepo;
+    private final BoundedPasswordEncoder encoder;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public UserImportService(UserRepo userRepo, BoundedPasswordEncoder encoder, Validator validator,
+                             TransactionTemplate transactionTemplate, EntityManager entityManager,
+                             @Value("${user.import.chunk-size:500}") int chunkSize) {
+        this.userRepo = userRepo;
+        this.encoder = encoder;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkImportResponseDto importUsers(Iterator<UserModel> users) {
+        List<BulkImportRowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenPhones = new HashSet<>();
+        List<IndexedUser> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        while (true) {
+            UserModel user;
+            try {
+                if (!users.hasNext()) {
+                    break;
+                }
+                user = users.next();
+            } catch (RuntimeException e) {
+                // The parser cannot resynchronise after a malformed row, so the import stops here
+                results.add(new BulkImportRowResult(index, Status.INVALID, null, "Malformed row: " + e.getMessage()));
+                break;
+            }
+
+            BulkImportRowResult rejection = validate(index, user, seenEmails, seenPhones);
+            if (rejection != null) {
+                results.add(rejection);
+            } else {
+                chunk.add(new IndexedUser(index, withoutServerOwnedFields(user)));
+            }
+            index++;
+
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, results);
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        long created = results.stream().filter(result -> result.getStatus() == Status.CREATED).count();
+        return new BulkImportResponseDto(created, results.size() - created, results);
+    }
+
+    private BulkImportRowResult validate(int index, UserModel user, Set<String> seenEmails, Set<String> seenPhones) {
+        if (user == null) {
+            return new BulkImportRowResult(index, Status.INVALID, null, "Row is empty");
+        }
+        Set<ConstraintViolation<UserModel>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return new BulkImportRowResult(index, Status.INVALID, null, message);
+        }
+        if ((user.getEmail() != null && !seenEmails.add(user.getEmail()))
+                || (user.getPhone() != null && !seenPhones.add(user.getPhone()))) {
+            return new BulkImportRowResult(index, Status.DUPLICATE, null, "Email or phone number repeated in this import");
+        }
+        return null;
+    }
+
+    private void importChunk(List<IndexedUser> chunk, List<BulkImportRowResult> results) {
+        Set<String> existingEmails = existing(chunk, UserModel::getEmail, userRepo::findExistingEmails);
+        Set<String> existingPhones = existing(chunk, UserModel::getPhone, userRepo::findExistingPhones);
+
+        List<IndexedUser> toInsert = new ArrayList<>(chunk.size());
+        for (IndexedUser row : chunk) {
+            if (existingEmails.contains(row.user().getEmail()) || existingPhones.contains(row.user().getPhone())) {
+                results.add(new BulkImportRowResult(row.index(), Status.DUPLICATE, null, "Email or phone number already exists"));
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<String> hashes = encoder.encodeAll(toInsert.stream().map(row -> row.user().getPassword()).toList());
+            for (int i = 0; i < toInsert.size(); i++) {
+                toInsert.get(i).user().setPassword(hashes.get(i));
+            }
+        } catch (PasswordHashingRejectedException e) {
+            toInsert.forEach(row -> results.add(new BulkImportRowResult(row.index(), Status.FAILED, null, e.getMessage())));
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    userRepo.saveAllAndFlush(toInsert.stream().map(IndexedUser::user).toList()));
+            toInsert.forEach(row -> results.add(created(row)));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took an email/phone after the pre-check; retry row by row to isolate it
+            toInsert.forEach(row -> results.add(insertSingle(row)));
+        } finally {
+            // Open-in-view keeps one EntityManager for the whole request; dropping each chunk's entities keeps
+            // memory flat and stops every later flush from dirty-checking the rows already imported
+            entityManager.clear();
+        }
+    }
+
+    private BulkImportRowResult insertSingle(IndexedUser row) {
+        // The rolled back batch already assigned an id and userId; let the retry generate fresh ones
+        row.user().setId(null);
+        row.user().setUserId(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepo.saveAndFlush(row.user()));
+            return created(row);
+        } catch (DataIntegrityViolationException e) {
+            return new BulkImportRowResult(row.index(), Status.DUPLICATE, null, "Email or phone number already exists");
+        }
+    }
+
+    // A client-supplied id would turn the insert into a merge: a SELECT per row, no batching and an
+    // overwrite of whichever user already has that id, password included
+    private static UserModel withoutServerOwnedFields(UserModel user) {
+        user.setId(null);
+        user.setUserId(null);
+        user.setStatus(UserPrinciple.ENABLED_STATUS);
+        user.setCreatedAt(null);
+        user.setUpdatedAt(null);
+        return user;
+    }
+
+    private static BulkImportRowResult created(IndexedUser row) {
+        return new BulkImportRowResult(row.index(), Status.CREATED, row.user().getUserId(), null);
+    }
+
+    private static Set<String> existing(List<IndexedUser> chunk,
+                                        Function<UserModel, String> field,
+                                        Function<Collection<String>, Set<String>> lookup) {
+        List<String> values = chunk.stream()
+                .map(row -> field.apply(row.user()))
+                .filter(Objects::nonNull)
+                .toList();
+        return values.isEmpty() ? Collections.emptySet() : lookup.apply(values);
+    }
+
+    private record IndexedUser(int index, UserModel user) {
+    }
+}
@@ -1,57 +1,95 @@
 package com.hire10x.createuser.service;
 
+import com.hire10x.createuser.cache.SingleFlight;
+import com.hire10x.createuser.cache.UserPrincipalCache;
+import com.hire10x.createuser.cache.UserProfileCache;
+import com.hire10x.createuser.dto.UserBatchResponseDto;
 import com.hire10x.createuser.dto.UserModelDto;
+import com.hire10x.createuser.dto.TokenResponseDto;
 import com.hire10x.createuser.exceptions.UserNotFoundException;
 
 import com.hire10x.createuser.dto.UserResponseDto;
 import com.hire10x.createuser.exceptions.DuplicateEntryException;
+import com.hire10x.createuser.exceptions.InvalidRefreshTokenException;
 import com.hire10x.createuser.exceptions.UserServiceException;
 import com.hire10x.createuser.mapper.UserModelMapper;
 import com.hire10x.createuser.model.UserLoginModel;
 import com.hire10x.createuser.model.UserModel;
 import com.hire10x.createuser.model.UserPrinciple;
+import com.hire10x.createuser.repository.UserCredentialsView;
+import com.hire10x.createuser.repository.UserProfileView;
 import com.hire10x.createuser.repository.UserRepo;
+import com.hire10x.createuser.repository.UserSpecifications;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Set;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     private static final String USERNOTFOUNDEXCEPTION = "User not found with ID: ";
+    // Matches the trailing (created_at, id) columns of the USERS_TABLE search indexes
+    private static final Sort SEARCH_ORDER = Sort.by("createdAt", "id");
     private final UserRepo userRepo;
     private final JWTService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserModelMapper userModelMapper;
+    private final UserPrincipalCache principalCache;
+    private final UserProfileCache profileCache;
+    private final PasswordEncoder encoder;
+    // Uncached password logins share one in-flight query per userId; profile reads already merge in profileCache
+    private final SingleFlight<String, Optional<UserCredentialsView>> credentialLookups = new SingleFlight<>();
 
     @Autowired
     @Lazy // To avoid circular references
-    public UserService(UserRepo userRepo, JWTService jwtService, @Lazy AuthenticationManager authenticationManager, UserModelMapper userModelMapper) {
+    public UserService(UserRepo userRepo, JWTService jwtService, @Lazy AuthenticationManager authenticationManager, UserModelMapper userModelMapper, UserPrincipalCache principalCache, UserProfileCache profileCache, PasswordEncoder encoder) {
         this.userRepo = userRepo;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
         this.userModelMapper = userModelMapper;
+        this.principalCache = principalCache;
+        this.profileCache = profileCache;
+        this.encoder = encoder;
     }
 
-
-    private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
-
     
+    @Timed("user.service")
     public String addUser(UserModel user){
+        // Rejects a duplicate with one indexed lookup instead of a BCrypt hash; the unique constraints still catch races
+        if ((user.getEmail() != null || user.getPhone() != null)
+                && userRepo.existsByEmailOrPhone(user.getEmail(), user.getPhone())) {
+            throw new DuplicateEntryException("Email or phone number already exists");
+        }
         try {
             user.setPassword(encoder.encode(user.getPassword()));
             UserModel savedUser =  userRepo.save(user);
+            profileCache.evict(savedUser.getUserId());
             return savedUser.getUserId();
         } catch (DataIntegrityViolationException e) {
                 throw new DuplicateEntryException("Email or phone number already exists");
@@ -61,6 +99,7 @@ public class UserService implements UserDetailsService {
     }
 
 
+    @Timed("user.service")
     public UserModelDto updateUser(String userId, UserModel user){
         Optional<UserModel> existingUserOpt = userRepo.findByUserId(userId);
 
@@ -80,6 +119,8 @@ public class UserService implements UserDetailsService {
 
             try {
                 userRepo.save(existingUser);
+                principalCache.evict(userId);
+                profileCache.evict(userId);
                 return userModelMapper.toDto(existingUser);
             } catch (DataIntegrityViolationException e) {
                 throw new DuplicateEntryException("Email or phone already Exists");
@@ -94,66 +135,82 @@ public class UserService implements UserDetailsService {
     }
 
 
+    @Timed("user.service")
     public String updateStatus(String userId,String status){
-        Optional<UserModel> existingUserOpt = userRepo.findByUserId(userId);
-        if (existingUserOpt.isPresent()) {
-            UserModel existingUser = existingUserOpt.get();
-            if(!existingUser.getStatus().equals(status)){
-                existingUser.setStatus(status);
-            }
-            else {
-                return "User status is already " + status;
+        // One conditional UPDATE: zero rows means the status was already set or the user does not exist
+        int updated = userRepo.updateStatusIfChanged(userId, status, LocalDateTime.now());
+        if (updated == 0) {
+            if (!userRepo.existsByUserId(userId)) {
+                throw new UserNotFoundException(USERNOTFOUNDEXCEPTION + userId);
             }
-
-            userRepo.save(existingUser);
-
-        } else {
-            throw new UserNotFoundException(USERNOTFOUNDEXCEPTION + userId);
+            return "User status is already " + status;
         }
 
+        principalCache.evict(userId);
+        profileCache.evict(userId);
 
         return "User status changed successfully to " +status;
     }
 
 
 
+    @Timed("user.service")
     public UserResponseDto getAllUsers(String role, String status, String companyId, int page, int size) {
         try {
-            List<UserModel> allUsers = userRepo.findAll();
+            Specification<UserModel> filters = UserSpecifications.matching(role, status, companyId);
 
-            // Apply filters using streams
-            Stream<UserModel> userStream = allUsers.stream();
+            // Filtering, paging and the total count all run in the database
+            Page<UserProfileView> userPage = userRepo.searchProfiles(filters, PageRequest.of(Math.max(0, page), size, SEARCH_ORDER));
 
-            if (companyId != null && !companyId.isEmpty()) {
-                userStream = userStream.filter(user -> companyId.equals(user.getCustomerId()));
+            // Pages past the end fall back to the last page, as they did with the in-memory pagination
+            if (userPage.getTotalPages() > 0 && userPage.getNumber() >= userPage.getTotalPages()) {
+                userPage = userRepo.searchProfiles(filters, PageRequest.of(userPage.getTotalPages() - 1, size, SEARCH_ORDER));
             }
 
-            if (role != null && !role.isEmpty()) {
-                userStream = userStream.filter(user -> role.equals(user.getRole()));
-            }
+            // Convert to DTOs
+            List<UserModelDto> userDtos = userModelMapper.profilesToDto(userPage.getContent());
 
-            if (status != null && !status.isEmpty()) {
-                userStream = userStream.filter(user -> status.equals(user.getStatus()));
-            }
+            // An empty result reports page 0 whatever page was asked for, as the in-memory pagination did
+            int currentPage = userPage.getTotalPages() == 0 ? 0 : userPage.getNumber();
 
-            List<UserModel> filteredUsers = userStream.toList();
+            // Return response DTO
+            return new UserResponseDto(userPage.getTotalElements(), userPage.getTotalPages(), currentPage, userDtos);
+        } catch (Exception e) {
+            throw new UserServiceException("An error occurred while fetching users: " + e.getMessage(), e);
+        }
+    }
 
-            // Pagination
-            long totalCount = filteredUsers.size();
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            int currentPage = Math.max(0, Math.min(page, totalPages - 1)); // Ensure currentPage is valid
 
-            // Perform pagination on the filtered list
-            List<UserModel> paginatedUsers = filteredUsers.stream()
-                    .skip((long) currentPage * size) // Skip records of previous pages
-                    .limit(size) // Limit to the requested page size
-                    .toList();
 
-            // Convert to DTOs
-            List<UserModelDto> userDtos = userModelMapper.toDto(paginatedUsers);
+    @Timed("user.service")
+    public UserResponseDto getUsersAfter(String role, String status, String companyId, String cursor, int size, boolean includeCount) {
+        UserSearchCursor after = (cursor == null || cursor.isEmpty()) ? null : UserSearchCursor.decode(cursor);
+        try {
+            if (size < 1) {
+                throw new IllegalArgumentException("Page size must not be less than one");
+            }
+            Specification<UserModel> filters = UserSpecifications.matching(role, status, companyId);
+            Specification<UserModel> seek = after == null
+                    ? filters
+                    : filters.and(UserSpecifications.after(after.createdAt(), after.id()));
+
+            // Fetch one extra row to know whether another page exists without counting
+            List<UserProfileView> users = userRepo.searchProfiles(seek, SEARCH_ORDER, size + 1);
+
+            String nextCursor = null;
+            if (users.size() > size) {
+                users = users.subList(0, size);
+                nextCursor = UserSearchCursor.of(users.get(size - 1)).encode();
+            }
 
-            // Return response DTO
-            return new UserResponseDto(totalCount, totalPages, currentPage, userDtos);
+            long totalCount = -1;
+            int totalPages = -1;
+            if (includeCount) {
+                totalCount = userRepo.count(filters);
+                totalPages = (int) Math.ceil((double) totalCount / size);
+            }
+
+            return new UserResponseDto(totalCount, totalPages, -1, userModelMapper.profilesToDto(users), nextCursor);
         } catch (Exception e) {
             throw new UserServiceException("An error occurred while fetching users: " + e.getMessage(), e);
         }
@@ -161,22 +218,52 @@ public class UserService implements UserDetailsService {
 
 
 
+    @Timed("user.service")
     public UserModelDto getUserByUserid(String userId) {
-        Optional<UserModel> userOpt = userRepo.findByUserId(userId);
+        return profileCache.get(userId, id -> {
+            Optional<UserProfileView> userOpt = userRepo.findProfileByUserId(id);
+
+            if (userOpt.isPresent()) {
+                UserProfileView user = userOpt.get();
+                return userModelMapper.toDto(user);
+            } else {
+                throw new UserNotFoundException(USERNOTFOUNDEXCEPTION + id);
+            }
+        });
+    }
 
-        if (userOpt.isPresent()) {
-            UserModel user = userOpt.get();
-            return userModelMapper.toDto(user);
-        } else {
-            throw new UserNotFoundException(USERNOTFOUNDEXCEPTION + userId);
+    @Timed("user.service")
+    public UserBatchResponseDto getUsersByUserIds(Collection<String> userIds) {
+        Set<String> requested = new LinkedHashSet<>();
+        userIds.stream().filter(Objects::nonNull).forEach(requested::add);
+        if (requested.isEmpty()) {
+            return new UserBatchResponseDto(Collections.emptyMap(), Collections.emptyList());
         }
+
+        Map<String, UserModelDto> found = new LinkedHashMap<>();
+        for (UserModelDto user : userModelMapper.profilesToDto(userRepo.findProfilesByUserIdIn(requested))) {
+            found.put(user.getUserId(), user);
+        }
+
+        // Keep the caller's order so clients can zip the response with their request
+        Map<String, UserModelDto> users = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String userId : requested) {
+            UserModelDto user = found.get(userId);
+            if (user != null) {
+                users.put(userId, user);
+            } else {
+                missing.add(userId);
+            }
+        }
+        return new UserBatchResponseDto(users, missing);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        Optional<UserModel> optionalUser = userRepo.findByUserId(username);
-        UserModel user;
+        Optional<UserCredentialsView> optionalUser = findCredentials(username);
+        UserCredentialsView user;
         if (optionalUser.isPresent()) {
             user = optionalUser.get();
         } else {
@@ -184,9 +271,29 @@ public class UserService implements UserDetailsService {
         }
 
 
-        return new UserPrinciple(user);
+        // DaoAuthenticationProvider rejects a principal that is not enabled before it checks the password
+        return new UserPrinciple(user.userId(), user.password(), UserPrinciple.isEnabledStatus(user.status()));
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login whose stored hash needs upgrading
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepo.updatePassword(user.getUsername(), newPassword);
+        return new UserPrinciple(user.getUsername(), newPassword, user.isEnabled());
+    }
+
+    // Principal lookup for token-authenticated requests, served from UserPrincipalCache after the first hit
+    public UserDetails loadPrincipalByUserId(String userId) throws UsernameNotFoundException {
+        return principalCache.get(userId, id -> findCredentials(id)
+                .map(user -> UserPrinciple.withoutPassword(user.userId(), UserPrinciple.isEnabledStatus(user.status())))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
+    }
+
+    private Optional<UserCredentialsView> findCredentials(String userId) {
+        return credentialLookups.load(userId, userRepo::findCredentialsByUserId);
     }
 
+    @Timed("user.service")
     public String verify(UserLoginModel userLoginModel) {
         Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(userLoginModel.getUserId(),userLoginModel.getPassword()));
 
@@ -198,6 +305,45 @@ public class UserService implements UserDetailsService {
 
         return "failed";
     }
+
+    // Password login that also hands out a refresh token, so clients only pay for BCrypt once per session
+    @Timed("user.service")
+    public TokenResponseDto issueTokens(UserLoginModel userLoginModel) {
+        Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(userLoginModel.getUserId(),userLoginModel.getPassword()));
+        if (!authentication.isAuthenticated()) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return tokensFor(userLoginModel.getUserId());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token pair. Only the token signature and
+     * the cached principal are checked, so no password hash is computed or read on this path; a user
+     * that was deleted or is no longer ENABLED cannot refresh. Nothing is stored server-side, so the
+     * old refresh token stays valid until it expires.
+     */
+    @Timed("user.service")
+    public TokenResponseDto refreshTokens(String refreshToken) {
+        String userId = jwtService.extractRefreshTokenUserId(refreshToken);
+        UserDetails principal;
+        try {
+            principal = loadPrincipalByUserId(userId);
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidRefreshTokenException("Invalid refresh token", e);
+        }
+        if (!principal.isEnabled()) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        return tokensFor(userId);
+    }
+
+    private TokenResponseDto tokensFor(String userId) {
+        return new TokenResponseDto(
+                jwtService.generateToken(userId),
+                jwtService.generateRefreshToken(userId),
+                "Bearer",
+                jwtService.getAccessTokenTtl().toSeconds());
+    }
 }
 
 
@@ -0,0 +1,106 @@
+package com.hire10x.createuser.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hire10x.createuser.exceptions.UserNotFoundException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+class CacheLoadsTest {
+
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    void getOrLoad_EvictedWhileLoadInFlight_ReloadsOnNextRequest() throws Exception {
+        // Arrange: the first load reads the row before updateUser commits
+        String userId = "firstName1001";
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        CompletableFuture<String> staleRead = CompletableFuture.supplyAsync(() -> CacheLoads.getOrLoad(cache, userId, id -> {
+            loadStarted.countDown();
+            await(evicted);
+            return "Engineer";
+        }));
+        loadStarted.await(5, TimeUnit.SECONDS);
+
+        // Act
+        cache.synchronous().invalidate(userId);
+        evicted.countDown();
+        staleRead.get(5, TimeUnit.SECONDS);
+        String afterEvict = CacheLoads.getOrLoad(cache, userId, id -> "Manager");
+
+        // Assert: the load that started before the evict was not kept
+        Assertions.assertThat(afterEvict).isEqualTo("Manager");
+    }
+
+    @Test
+    void getOrLoad_LoaderFails_WaiterGetsTheErrorButTheEntryNeverFails() throws Exception {
+        // Arrange: a second caller joins a load for a userId that does not exist
+        String userId = "missing1001";
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> CacheLoads.getOrLoad(cache, userId, id -> {
+            loadStarted.countDown();
+            await(fail);
+            throw new UserNotFoundException("User not found with userId: " + id);
+        }));
+        loadStarted.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> entry = cache.getIfPresent(userId);
+        AtomicReference<Throwable> waiterError = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                CacheLoads.getOrLoad(cache, userId, id -> {
+                    throw new AssertionError("waiter must join the load in flight");
+                });
+            } catch (Throwable e) {
+                waiterError.set(e);
+            }
+        });
+        waiter.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiter.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Act
+        fail.countDown();
+        waiter.join(5000);
+
+        // Assert: both callers see the loader's exception, Caffeine only ever sees a normal completion
+        Assertions.assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(UserNotFoundException.class);
+        Assertions.assertThat(waiterError.get()).isInstanceOf(UserNotFoundException.class);
+        Assertions.assertThat(entry.isCompletedExceptionally()).isFalse();
+        Assertions.assertThat(cache.getIfPresent(userId)).isNull();
+    }
+
+    @Test
+    void getOrLoad_AfterFailedLoad_RetriesTheLoader() {
+        // Arrange
+        String userId = "firstName1001";
+        Assertions.assertThatThrownBy(() -> CacheLoads.getOrLoad(cache, userId, id -> {
+            throw new UserNotFoundException("User not found with userId: " + id);
+        })).isInstanceOf(UserNotFoundException.class);
+
+        // Act
+        String loaded = CacheLoads.getOrLoad(cache, userId, id -> "created since");
+
+        // Assert
+        Assertions.assertThat(loaded).isEqualTo("created since");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
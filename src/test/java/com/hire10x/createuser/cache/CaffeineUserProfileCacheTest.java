@@ -0,0 +1,33 @@
+package com.hire10x.createuser.cache;
+
+import com.hire10x.createuser.dto.UserModelDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class CaffeineUserProfileCacheTest {
+
+    private final CaffeineUserProfileCache cache = new CaffeineUserProfileCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Test
+    void get_CachedProfile_DoesNotCallLoaderAgain() {
+        // Arrange
+        String userId = "firstName1001";
+        cache.get(userId, id -> profile(userId, "Engineer"));
+
+        // Act
+        UserModelDto cached = cache.get(userId, id -> {
+            throw new AssertionError("loader must not run for a cached profile");
+        });
+
+        // Assert
+        Assertions.assertThat(cached.getDesignation()).isEqualTo("Engineer");
+    }
+
+    private static UserModelDto profile(String userId, String designation) {
+        return UserModelDto.builder().userId(userId).designation(designation).build();
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.hire10x.createuser.cache;
+
+import com.hire10x.createuser.exceptions.IdempotencyKeyMismatchException;
+import com.hire10x.createuser.exceptions.IdempotentRequestInProgressException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(5), Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+    @Test
+    void execute_ConcurrentDuplicates_RunOnceAndShareTheResponse() throws Exception {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        // Act
+        Future<IdempotencyStore.Outcome> leader = pool.submit(() -> store.execute("key-1", "fp", () -> {
+            runs.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return new IdempotencyStore.StoredResponse(201, "firstName1001");
+        }));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        List<Future<IdempotencyStore.Outcome>> retries = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            retries.add(pool.submit(() -> store.execute("key-1", "fp", () -> {
+                runs.incrementAndGet();
+                return new IdempotencyStore.StoredResponse(400, "Email or phone number already exists");
+            })));
+        }
+        release.countDown();
+
+        // Assert
+        Assertions.assertThat(leader.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        for (Future<IdempotencyStore.Outcome> retry : retries) {
+            IdempotencyStore.Outcome outcome = retry.get(5, TimeUnit.SECONDS);
+            Assertions.assertThat(outcome.replayed()).isTrue();
+            Assertions.assertThat(outcome.response()).isEqualTo(new IdempotencyStore.StoredResponse(201, "firstName1001"));
+        }
+        Assertions.assertThat(runs.get()).isEqualTo(1);
+        pool.shutdownNow();
+    }
+
+    @Test
+    void execute_SameKeyDifferentPayload_ThrowsMismatch() {
+        // Arrange
+        store.execute("key-1", "fp-1", () -> new IdempotencyStore.StoredResponse(201, "firstName1001"));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> store.execute("key-1", "fp-2", () -> new IdempotencyStore.StoredResponse(201, "firstName1002")));
+    }
+
+    @Test
+    void execute_ServerError_IsNotKept() {
+        // Arrange
+        store.execute("key-1", "fp", () -> new IdempotencyStore.StoredResponse(503, "Password hashing capacity exhausted"));
+
+        // Act
+        IdempotencyStore.Outcome retry = store.execute("key-1", "fp", () -> new IdempotencyStore.StoredResponse(201, "firstName1001"));
+
+        // Assert
+        Assertions.assertThat(retry.replayed()).isFalse();
+        Assertions.assertThat(retry.response().status()).isEqualTo(201);
+    }
+
+    @Test
+    void execute_FirstRequestStillRunningPastWaitTimeout_ThrowsInProgress() throws Exception {
+        // Arrange
+        IdempotencyStore impatient = new IdempotencyStore(100, Duration.ofMinutes(5), Duration.ofMillis(50), new SimpleMeterRegistry());
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = new Thread(() -> impatient.execute("key-1", "fp", () -> {
+            leaderStarted.countDown();
+            await(release);
+            return new IdempotencyStore.StoredResponse(201, "firstName1001");
+        }));
+        leader.start();
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        // Act & Assert
+        assertThrows(IdempotentRequestInProgressException.class,
+                () -> impatient.execute("key-1", "fp", () -> new IdempotencyStore.StoredResponse(201, "firstName1002")));
+        release.countDown();
+        leader.join();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
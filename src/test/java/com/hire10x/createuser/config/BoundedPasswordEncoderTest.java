@@ -0,0 +1,65 @@
+package com.hire10x.createuser.config;
+
+import com.hire10x.createuser.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1));
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+            PasswordEncoderConfig.delegatingPasswordEncoder(4), executor, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void encodeAndMatches_RunOnPoolAndRecordLatency() {
+        // Act
+        String hash = encoder.encode("Password@123");
+
+        // Assert
+        Assertions.assertThat(encoder.matches("Password@123", hash)).isTrue();
+        Assertions.assertThat(meterRegistry.get("password.hash.duration").tag("operation", "encode").timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("password.hash.duration").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void encodeAll_HashesEveryPasswordInOrder() {
+        // Act
+        List<String> hashes = encoder.encodeAll(List.of("Password@1", "Password@2", "Password@3"));
+
+        // Assert
+        Assertions.assertThat(hashes).hasSize(3);
+        Assertions.assertThat(encoder.matches("Password@1", hashes.get(0))).isTrue();
+        Assertions.assertThat(encoder.matches("Password@3", hashes.get(2))).isTrue();
+    }
+
+    @Test
+    void encode_PoolAndQueueFull_RejectsImmediately() {
+        // Arrange: occupy the only thread and the only queue slot
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("Password@123"));
+        Assertions.assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("password.hash.queue.depth").gauge().value()).isEqualTo(1);
+        release.countDown();
+    }
+}
@@ -0,0 +1,73 @@
+package com.hire10x.createuser.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+class PasswordEncoderConfigTest {
+
+    private final PasswordEncoder encoder = PasswordEncoderConfig.delegatingPasswordEncoder(4);
+
+    @Test
+    void encode_UsesBcryptPrefixAndConfiguredCost() {
+        // Act
+        String hash = encoder.encode("Password@123");
+
+        // Assert
+        Assertions.assertThat(hash).startsWith("{bcrypt}$2a$04$");
+        Assertions.assertThat(encoder.matches("Password@123", hash)).isTrue();
+        Assertions.assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void matches_LegacyUnprefixedHash_MatchesAndNeedsUpgrade() {
+        // Arrange
+        String legacyHash = new BCryptPasswordEncoder(4).encode("Password@123");
+
+        // Act & Assert
+        Assertions.assertThat(encoder.matches("Password@123", legacyHash)).isTrue();
+        Assertions.assertThat(encoder.upgradeEncoding(legacyHash)).isTrue();
+    }
+
+    @Test
+    void upgradeEncoding_HashWithLowerCost_NeedsUpgrade() {
+        // Arrange
+        PasswordEncoder higherCostEncoder = PasswordEncoderConfig.delegatingPasswordEncoder(5);
+        String lowerCostHash = encoder.encode("Password@123");
+
+        // Act & Assert
+        Assertions.assertThat(higherCostEncoder.upgradeEncoding(lowerCostHash)).isTrue();
+    }
+
+    @Test
+    void upgradeEncoding_HashWithHigherCost_IsKept() {
+        // Arrange: a replica configured with a lower cost must not rewrite hashes made at a higher one
+        String higherCostHash = "{bcrypt}" + new BCryptPasswordEncoder(5).encode("Password@123");
+
+        // Act & Assert
+        Assertions.assertThat(encoder.upgradeEncoding(higherCostHash)).isFalse();
+        Assertions.assertThat(encoder.matches("Password@123", higherCostHash)).isTrue();
+    }
+
+    @Test
+    void calibrate_StaysWithinBounds() {
+        // Act
+        int tightTarget = PasswordEncoderConfig.calibrate(Duration.ofNanos(1), 4, 6);
+        int looseTarget = PasswordEncoderConfig.calibrate(Duration.ofHours(1), 4, 6);
+
+        // Assert
+        Assertions.assertThat(tightTarget).isEqualTo(4);
+        Assertions.assertThat(looseTarget).isEqualTo(6);
+    }
+
+    @Test
+    void defaultHashingThreads_LeavesHalfTheCoresForOtherWork() {
+        // Act & Assert
+        Assertions.assertThat(PasswordEncoderConfig.defaultHashingThreads(1)).isEqualTo(1);
+        Assertions.assertThat(PasswordEncoderConfig.defaultHashingThreads(2)).isEqualTo(1);
+        Assertions.assertThat(PasswordEncoderConfig.defaultHashingThreads(8)).isEqualTo(4);
+    }
+}
@@ -1,38 +1,68 @@
 package com.hire10x.createuser.controller;
 
+import com.hire10x.createuser.dto.BulkImportResponseDto;
+import com.hire10x.createuser.dto.BulkImportRowResult;
+import com.hire10x.createuser.dto.TokenResponseDto;
 import com.hire10x.createuser.dto.UserModelDto;
 import com.hire10x.createuser.dto.UserResponseDto;
 import com.hire10x.createuser.dto.UserStatusDto;
+import com.hire10x.createuser.exceptions.DuplicateEntryException;
+import com.hire10x.createuser.exceptions.InvalidCursorException;
+import com.hire10x.createuser.exceptions.InvalidRefreshTokenException;
+import com.hire10x.createuser.exceptions.PasswordHashingRejectedException;
 import com.hire10x.createuser.model.UserModel;
+import com.hire10x.createuser.service.UserExportService;
+import com.hire10x.createuser.service.UserImportService;
 import com.hire10x.createuser.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.mockito.ArgumentMatchers.eq;
 
 
 @WebMvcTest(UserController.class)
 @ComponentScan(basePackages = "com.hire10x.createuser")
+@Import(SimpleMeterRegistry.class) // The web slice does not auto-configure a MeterRegistry
 class UserControllerTest {
 
     @Autowired
@@ -43,6 +73,12 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserImportService userImportService;
+
+    @MockBean
+    private UserExportService userExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -72,6 +108,133 @@ class UserControllerTest {
     }
 
 
+    @Test
+    void createUser_RetryWithSameIdempotencyKey_ReplaysOriginalResponse() throws Exception {
+        // Arrange
+        UserModel user = UserModel.builder()
+                .firstName("firstName")
+                .lastName("lastName")
+                .email("retry@gmail.com")
+                .phone("1234567891")
+                .password("Password@123")
+                .role("ADMIN")
+                .customerId("apple")
+                .build();
+        when(userService.addUser(any(UserModel.class))).thenReturn("firstName1001");
+
+        // Act
+        mockMvc.perform(post("/api/v1/users")
+                        .header("Idempotency-Key", "signup-retry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isCreated())
+                .andExpect(content().string("firstName1001"));
+        mockMvc.perform(post("/api/v1/users")
+                        .header("Idempotency-Key", "signup-retry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().string("firstName1001"));
+
+        // Assert
+        verify(userService, times(1)).addUser(any(UserModel.class));
+    }
+
+    @Test
+    void createUser_IdempotencyKeyDuplicateEntry_ReplaysBadRequest() throws Exception {
+        // Arrange
+        UserModel user = UserModel.builder()
+                .firstName("firstName")
+                .lastName("lastName")
+                .email("taken@gmail.com")
+                .phone("1234567893")
+                .password("Password@123")
+                .role("ADMIN")
+                .customerId("apple")
+                .build();
+        when(userService.addUser(any(UserModel.class)))
+                .thenThrow(new DuplicateEntryException("Email or phone number already exists"));
+
+        // Act
+        mockMvc.perform(post("/api/v1/users")
+                        .header("Idempotency-Key", "signup-duplicate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/users")
+                        .header("Idempotency-Key", "signup-duplicate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+
+        // Assert
+        verify(userService, times(1)).addUser(any(UserModel.class));
+    }
+
+    @Test
+    void createUser_IdempotencyKeyUnexpectedError_ReturnsServerErrorAndRetryRunsAgain() throws Exception {
+        // Arrange
+        UserModel user = UserModel.builder()
+                .firstName("firstName")
+                .lastName("lastName")
+                .email("flaky@gmail.com")
+                .phone("1234567894")
+                .password("Password@123")
+                .role("ADMIN")
+                .customerId("apple")
+                .build();
+        when(userService.addUser(any(UserModel.class)))
+                .thenThrow(new RuntimeException("Connection reset"))
+                .thenReturn("firstName1001");
+
+        // Act
+        mockMvc.perform(post("/api/v1/users")
+                        .header("Idempotency-Key", "signup-flaky")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isInternalServerError());
+        mockMvc.perform(post("/api/v1/users")
+                        .header("Idempotency-Key", "signup-flaky")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(content().string("firstName1001"));
+
+        // Assert
+        verify(userService, times(2)).addUser(any(UserModel.class));
+    }
+
+    @Test
+    void createUser_IdempotencyKeyReusedForOtherPayload_ReturnsUnprocessableEntity() throws Exception {
+        // Arrange
+        UserModel user = UserModel.builder()
+                .firstName("firstName")
+                .lastName("lastName")
+                .email("reuse@gmail.com")
+                .phone("1234567892")
+                .password("Password@123")
+                .role("ADMIN")
+                .customerId("apple")
+                .build();
+        when(userService.addUser(any(UserModel.class))).thenReturn("firstName1001");
+        mockMvc.perform(post("/api/v1/users")
+                        .header("Idempotency-Key", "signup-reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isCreated());
+        user.setEmail("someone.else@gmail.com");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/users")
+                        .header("Idempotency-Key", "signup-reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void createUser_ExceptionHandling() throws Exception {
         // Arrange
@@ -98,6 +261,30 @@ class UserControllerTest {
     }
 
 
+    @Test
+    void createUser_HashingCapacityExhausted_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        UserModel user = UserModel.builder()
+                .firstName("firstName")
+                .lastName("lastName")
+                .email("firstname@gmail.com")
+                .phone("1234567890")
+                .password("Password@123")
+                .role("ADMIN")
+                .customerId("apple")
+                .build();
+
+        when(userService.addUser(any(UserModel.class)))
+                .thenThrow(new PasswordHashingRejectedException("Too many concurrent password operations, please retry later"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+
     @Test
     void createUser_BadRequest() throws Exception {
         // Arrange
@@ -115,6 +302,33 @@ class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser
+    void createUsers_Ndjson_ReturnsPerRowResults() throws Exception {
+        // Arrange
+        BulkImportResponseDto result = new BulkImportResponseDto(1, 1, List.of(
+                new BulkImportRowResult(0, BulkImportRowResult.Status.CREATED, "firstName1001", null),
+                new BulkImportRowResult(1, BulkImportRowResult.Status.DUPLICATE, null, "Email or phone number already exists")));
+        List<UserModel> received = new ArrayList<>();
+        when(userImportService.importUsers(any())).thenAnswer(invocation -> {
+            Iterator<UserModel> users = invocation.getArgument(0);
+            users.forEachRemaining(received::add);
+            return result;
+        });
+
+        String body = "{\"firstName\":\"firstName\",\"email\":\"a@example.com\"}\n"
+                + "{\"firstName\":\"secondName\",\"email\":\"a@example.com\"}\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(result)));
+        assertEquals(2, received.size());
+        assertEquals("secondName", received.get(1).getFirstName());
+    }
+
     // updateUser tests
 
     @Test
@@ -179,7 +393,7 @@ class UserControllerTest {
                 .thenReturn(mockResponse);
 
         // Act
-        ResponseEntity<UserResponseDto> response = userController.fetchAllUsers("ADMIN", "ACTIVE", "123", 0, 10);
+        ResponseEntity<UserResponseDto> response = userController.fetchAllUsers("ADMIN", "ACTIVE", "123", 0, 10, null, true);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -187,6 +401,33 @@ class UserControllerTest {
     }
 
 
+    @Test
+    @WithMockUser
+    void fetchAllUsers_ZeroSize_ReturnsBadRequest() throws Exception {
+        // Act & Assert: rejected before either paging mode reaches the service
+        mockMvc.perform(get("/api/v1/users/search").param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("size must be at least 1"));
+        mockMvc.perform(get("/api/v1/users/search").param("size", "0").param("cursor", ""))
+                .andExpect(status().isBadRequest());
+        verify(userService, never()).getAllUsers(any(), any(), any(), anyInt(), anyInt());
+        verify(userService, never()).getUsersAfter(any(), any(), any(), any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser
+    void fetchAllUsers_InvalidCursor_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(userService.getUsersAfter(any(), any(), any(), eq("bogus"), anyInt(), anyBoolean()))
+                .thenThrow(new InvalidCursorException("Invalid cursor: bogus"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/users/search").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor: bogus"));
+    }
+
+
     @Test
     void testFetchUserByUserid_Success() {
         // Arrange
@@ -244,4 +485,101 @@ class UserControllerTest {
         assertEquals(exceptionMessage, response.getBody());
     }
 
+    @Test
+    @WithMockUser
+    void exportUsers_Csv_StreamsServiceOutput() throws Exception {
+        // Arrange: the body is held back until the request thread has left the filter chain, otherwise
+        // both threads write security headers to the mock response at the same time
+        CountDownLatch requestThreadDone = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            requestThreadDone.await(5, TimeUnit.SECONDS);
+            OutputStream out = invocation.getArgument(4);
+            out.write("userId\nfirst1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userExportService).export(eq("ADMIN"), any(), any(), eq(UserExportService.Format.CSV), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/users/export")
+                        .param("role", "ADMIN")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        requestThreadDone.countDown();
+
+        // Assert
+        assertEquals(TimeUnit.MINUTES.toMillis(30), result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("userId\nfirst1\n"));
+    }
+
+    @Test
+    @WithMockUser
+    void fetchUsersByUserIds_OverLimit_ReturnsBadRequest() throws Exception {
+        // Arrange
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            userIds.add("firstName" + i);
+        }
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/users/search/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userIds)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void refresh_ValidToken_ReturnsNewPairWithoutAuthentication() throws Exception {
+        // Arrange
+        when(userService.refreshTokens("refresh"))
+                .thenReturn(new TokenResponseDto("newAccess", "newRefresh", "Bearer", 1800));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/login/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"accessToken\":\"newAccess\",\"refreshToken\":\"newRefresh\",\"expiresIn\":1800}"));
+    }
+
+    @Test
+    void refresh_InvalidToken_ReturnsUnauthorized() throws Exception {
+        // Arrange
+        when(userService.refreshTokens("expired")).thenThrow(new InvalidRefreshTokenException("Invalid refresh token"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/login/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"expired\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_WithoutAuthentication_ReturnsUnauthorized() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_OnManagementPort_SkipsAuthentication() throws Exception {
+        // Act & Assert: no credentials asked for; the endpoint itself lives in the management child context
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                    request.setLocalPort(8081);
+                    return request;
+                }))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void jwks_WithoutAuthentication_PublishesNoSecretsForHmacKeys() throws Exception {
+        // Act & Assert: the default ring signs with HMAC, which has no public half to publish
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"keys\":[]}"));
+    }
+
 }
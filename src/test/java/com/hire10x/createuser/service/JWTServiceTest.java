@@ -0,0 +1,112 @@
+package com.hire10x.createuser.service;
+
+import com.hire10x.createuser.exceptions.InvalidRefreshTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JWTServiceTest {
+
+    private JwtKeyRing keyRing;
+    private JWTService jwtService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyRing = JwtKeyRing.ephemeral();
+        jwtService = new JWTService(keyRing, 100, Duration.ofMinutes(30), Duration.ofDays(7), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getVerifiedClaims_ReturnsSubjectOfGeneratedToken() {
+        // Arrange
+        String token = jwtService.generateToken("firstName1001");
+
+        // Act
+        Claims claims = jwtService.getVerifiedClaims(token);
+
+        // Assert
+        Assertions.assertThat(claims.getSubject()).isEqualTo("firstName1001");
+        Assertions.assertThat(jwtService.isTokenValid(claims)).isTrue();
+        Assertions.assertThat(jwtService.extractUserId(token)).isEqualTo("firstName1001");
+    }
+
+    @Test
+    void getVerifiedClaims_SameToken_ReusesVerifiedClaims() {
+        // Arrange
+        String token = jwtService.generateToken("firstName1001");
+
+        // Act
+        Claims first = jwtService.getVerifiedClaims(token);
+        Claims second = jwtService.getVerifiedClaims(token);
+
+        // Assert
+        Assertions.assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void getVerifiedClaims_TokenFromAnotherKey_ThrowsSignatureException() throws Exception {
+        // Arrange
+        String foreignToken = new JWTService(JwtKeyRing.ephemeral(), 100, Duration.ofMinutes(30), Duration.ofDays(7), new SimpleMeterRegistry()).generateToken("firstName1001");
+
+        // Act & Assert
+        assertThrows(SignatureException.class, () -> jwtService.getVerifiedClaims(foreignToken));
+    }
+
+    @Test
+    void generateToken_ExpiresAfterConfiguredLifetime() {
+        // Act
+        Claims claims = jwtService.getVerifiedClaims(jwtService.generateToken("firstName1001"));
+
+        // Assert
+        long lifetimeMillis = claims.getExpiration().getTime() - claims.getIssuedAt().getTime();
+        Assertions.assertThat(lifetimeMillis).isEqualTo(Duration.ofMinutes(30).toMillis());
+        Assertions.assertThat(claims.getAudience()).containsExactly(JWTService.ACCESS_TOKEN_AUDIENCE);
+        Assertions.assertThat(jwtService.isAccessToken(claims)).isTrue();
+    }
+
+    @Test
+    void extractRefreshTokenUserId_RefreshToken_ReturnsSubject() {
+        // Arrange
+        String refreshToken = jwtService.generateRefreshToken("firstName1001");
+
+        // Act & Assert
+        Assertions.assertThat(jwtService.extractRefreshTokenUserId(refreshToken)).isEqualTo("firstName1001");
+        Assertions.assertThat(jwtService.getVerifiedClaims(refreshToken).getAudience()).containsExactly(JWTService.REFRESH_TOKEN_AUDIENCE);
+        Assertions.assertThat(jwtService.isAccessToken(jwtService.getVerifiedClaims(refreshToken))).isFalse();
+    }
+
+    @Test
+    void extractRefreshTokenUserId_AccessToken_ThrowsInvalidRefreshTokenException() {
+        // Arrange
+        String accessToken = jwtService.generateToken("firstName1001");
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> jwtService.extractRefreshTokenUserId(accessToken));
+        assertThrows(InvalidRefreshTokenException.class, () -> jwtService.extractRefreshTokenUserId("not-a-token"));
+    }
+
+    @Test
+    void tokenWithoutAudience_IsNeitherAccessNorRefreshToken() {
+        // Arrange: signed by our own key the way tokens were before the aud claim
+        JwtKeyRing.SigningKey key = keyRing.activeKey();
+        String legacyToken = Jwts.builder()
+                .header().keyId(key.id()).and()
+                .claims().subject("firstName1001").add("typ", "refresh")
+                .expiration(new Date(System.currentTimeMillis() + 60_000)).and()
+                .signWith(key.signingKey())
+                .compact();
+
+        // Act & Assert
+        Assertions.assertThat(jwtService.isAccessToken(jwtService.getVerifiedClaims(legacyToken))).isFalse();
+        assertThrows(InvalidRefreshTokenException.class, () -> jwtService.extractRefreshTokenUserId(legacyToken));
+    }
+}
@@ -0,0 +1,177 @@
+package com.hire10x.createuser.service;
+
+import com.hire10x.createuser.exceptions.JWTServiceException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtKeyRingTest {
+
+    private static final String KEY_1 = randomSecret();
+    private static final String KEY_2 = randomSecret();
+
+    @TempDir
+    Path dir;
+
+    private final List<JwtKeyRing> rings = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        rings.forEach(JwtKeyRing::close);
+    }
+
+    @Test
+    void tokensIssuedByOneReplica_VerifyOnAnother() throws Exception {
+        // Arrange
+        Path file = write("active=k1\nk1=" + KEY_1 + "\n");
+        JWTService replicaA = jwtService(file);
+        JWTService replicaB = jwtService(file);
+
+        // Act
+        String token = replicaA.generateToken("firstName1001");
+
+        // Assert
+        Assertions.assertThat(replicaB.extractUserId(token)).isEqualTo("firstName1001");
+    }
+
+    @Test
+    void reload_NewActiveKey_SignsWithItAndStillVerifiesOldTokens() throws Exception {
+        // Arrange
+        Path file = write("active=k1\nk1=" + KEY_1 + "\n");
+        JwtKeyRing ring = ring(file);
+        JWTService jwtService = new JWTService(ring, 100, Duration.ofMinutes(30), Duration.ofDays(7), new SimpleMeterRegistry());
+        String oldToken = jwtService.generateToken("firstName1001");
+
+        // Act
+        Files.writeString(file, "active=k2\nk1=" + KEY_1 + "\nk2=" + KEY_2 + "\n");
+        boolean reloaded = ring.reload();
+        String newToken = jwtService.generateToken("firstName1001");
+
+        // Assert
+        Assertions.assertThat(reloaded).isTrue();
+        Assertions.assertThat(ring.activeKey().id()).isEqualTo("k2");
+        Assertions.assertThat(jwtService.extractUserId(oldToken)).isEqualTo("firstName1001");
+        Assertions.assertThat(jwtService.extractUserId(newToken)).isEqualTo("firstName1001");
+    }
+
+    @Test
+    void reload_KeyRemoved_RejectsTokensSignedWithIt() throws Exception {
+        // Arrange
+        Path file = write("active=k1\nk1=" + KEY_1 + "\n");
+        JwtKeyRing ring = ring(file);
+        JWTService jwtService = new JWTService(ring, 100, Duration.ofMinutes(30), Duration.ofDays(7), new SimpleMeterRegistry());
+        String oldToken = jwtService.generateToken("firstName1001");
+        jwtService.extractUserId(oldToken);  // Puts the verified claims in the cache
+
+        // Act
+        Files.writeString(file, "active=k2\nk2=" + KEY_2 + "\n");
+        ring.reload();
+
+        // Assert
+        assertThrows(JwtException.class, () -> jwtService.extractUserId(oldToken));
+    }
+
+    @Test
+    void reload_BrokenFile_KeepsCurrentKeys() throws Exception {
+        // Arrange
+        Path file = write("active=k1\nk1=" + KEY_1 + "\n");
+        JwtKeyRing ring = ring(file);
+
+        // Act
+        Files.writeString(file, "active=k3\nk1=" + KEY_1 + "\n");
+        boolean reloaded = ring.reload();
+
+        // Assert
+        Assertions.assertThat(reloaded).isFalse();
+        Assertions.assertThat(ring.activeKey().id()).isEqualTo("k1");
+    }
+
+    @Test
+    void asymmetricKeys_TokensVerifyDownstreamWithPublishedJwks() throws Exception {
+        // Arrange: EdDSA signs, an ES256 key only verifies, and the HMAC key must never be published
+        KeyPair ed25519 = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair p256 = ecGenerator.generateKeyPair();
+        Path file = write("active=ed\n"
+                + "ed.alg=EdDSA\ned.private=" + encode(ed25519.getPrivate()) + "\ned.public=" + encode(ed25519.getPublic()) + "\n"
+                + "ec.alg=ES256\nec.public=" + encode(p256.getPublic()) + "\n"
+                + "k1=" + KEY_1 + "\n");
+        JwtKeyRing ring = ring(file);
+        JWTService jwtService = new JWTService(ring, 100, Duration.ofMinutes(30), Duration.ofDays(7), new SimpleMeterRegistry());
+
+        // Act
+        String token = jwtService.generateToken("firstName1001");
+        JwkSet jwks = Jwks.setParser().build().parse(ring.publicJwks());
+
+        // Assert: a downstream service verifies with nothing but the JWK set
+        Assertions.assertThat(jwks.getKeys()).extracting(Jwk::getId).containsExactlyInAnyOrder("ed", "ec");
+        Jwk<?> signingJwk = jwks.getKeys().stream().filter(jwk -> "ed".equals(jwk.getId())).findFirst().orElseThrow();
+        Claims claims = Jwts.parser()
+                .verifyWith((PublicKey) signingJwk.toKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        Assertions.assertThat(claims.getSubject()).isEqualTo("firstName1001");
+    }
+
+    @Test
+    void activeKeyWithoutPrivateKey_FailsToLoad() throws Exception {
+        // Arrange
+        KeyPair ed25519 = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Path file = write("active=ed\ned.alg=EdDSA\ned.public=" + encode(ed25519.getPublic()) + "\n");
+
+        // Act & Assert
+        assertThrows(JWTServiceException.class, () -> new JwtKeyRing(file.toString(), Duration.ofHours(1), JwtKeyRing.HS256));
+    }
+
+    private JWTService jwtService(Path file) throws Exception {
+        return new JWTService(ring(file), 100, Duration.ofMinutes(30), Duration.ofDays(7), new SimpleMeterRegistry());
+    }
+
+    private JwtKeyRing ring(Path file) throws Exception {
+        // Long interval: the tests drive reload() themselves
+        JwtKeyRing ring = new JwtKeyRing(file.toString(), Duration.ofHours(1), JwtKeyRing.HS256);
+        rings.add(ring);
+        return ring;
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = dir.resolve("jwt-keys.properties");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private static String encode(Key key) {
+        return Base64.getEncoder().encodeToString(key.getEncoded());
+    }
+
+    private static String randomSecret() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return Base64.getEncoder().encodeToString(secret);
+    }
+}
@@ -0,0 +1,79 @@
+package com.hire10x.createuser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hire10x.createuser.mapper.UserModelMapperImpl;
+import com.hire10x.createuser.repository.UserProfileView;
+import com.hire10x.createuser.repository.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private UserRepo userRepo;
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        userExportService = new UserExportService(userRepo, new UserModelMapperImpl(), objectMapper, Integer.MIN_VALUE);
+    }
+
+    @Test
+    void export_Csv_WritesHeaderAndEscapesFields() throws Exception {
+        // Arrange
+        when(userRepo.streamProfiles(isNull(), isNull(), isNull(), eq(Integer.MIN_VALUE))).thenReturn(Stream.of(user("first1", "Smith, Jr.")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export("", null, null, UserExportService.Format.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("userId,firstName"));
+        assertTrue(lines[1].startsWith("first1,first,,\"Smith, Jr.\",first@example.com"));
+    }
+
+    @Test
+    void export_Ndjson_WritesOneObjectPerLine() throws Exception {
+        // Arrange
+        when(userRepo.streamProfiles(isNull(), isNull(), isNull(), eq(Integer.MIN_VALUE)))
+                .thenReturn(Stream.of(user("first1", "last"), user("first2", "last")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export(null, null, null, UserExportService.Format.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"userId\":\"first1\""));
+        assertTrue(lines[1].contains("\"userId\":\"first2\""));
+    }
+
+    private static UserProfileView user(String userId, String lastName) {
+        return new UserProfileView(1001L, userId, "first", lastName, "first@example.com", null, null, null,
+                null, null, LocalDateTime.of(2024, 1, 1, 0, 0), null);
+    }
+}
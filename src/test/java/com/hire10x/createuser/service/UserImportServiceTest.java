@@ -0,0 +1,192 @@
+package com.hire10x.createuser.service;
+
+import com.hire10x.createuser.config.BoundedPasswordEncoder;
+import com.hire10x.createuser.dto.BulkImportResponseDto;
+import com.hire10x.createuser.dto.BulkImportRowResult;
+import com.hire10x.createuser.model.UserModel;
+import com.hire10x.createuser.repository.UserRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private BoundedPasswordEncoder encoder;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userRepo, encoder,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate, entityManager, 2);
+    }
+
+    @Test
+    void importUsers_MixedRows_ReportsResultPerRow() {
+        // Arrange
+        UserModel valid = user("first", "first@example.com", "1111111111");
+        UserModel invalid = user("second", "not-an-email", "2222222222");
+        UserModel repeated = user("third", "first@example.com", "3333333333");
+        UserModel existing = user("fourth", "taken@example.com", "4444444444");
+
+        when(userRepo.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@example.com"));
+        when(userRepo.findExistingPhones(anyCollection())).thenReturn(Set.of());
+        when(encoder.encodeAll(anyList())).thenReturn(List.of("{bcrypt}hash"));
+        runTransactions();
+        when(userRepo.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<UserModel> users = invocation.getArgument(0);
+            users.forEach(user -> user.setUserId(user.getFirstName() + "1000"));
+            return users;
+        });
+
+        // Act
+        BulkImportResponseDto response = userImportService.importUsers(List.of(valid, invalid, repeated, existing).iterator());
+
+        // Assert
+        Assertions.assertThat(response.getCreated()).isEqualTo(1);
+        Assertions.assertThat(response.getRejected()).isEqualTo(3);
+        Assertions.assertThat(response.getRows())
+                .extracting(BulkImportRowResult::getIndex, BulkImportRowResult::getStatus, BulkImportRowResult::getUserId)
+                .containsExactly(
+                        Assertions.tuple(0, BulkImportRowResult.Status.CREATED, "first1000"),
+                        Assertions.tuple(1, BulkImportRowResult.Status.INVALID, null),
+                        Assertions.tuple(2, BulkImportRowResult.Status.DUPLICATE, null),
+                        Assertions.tuple(3, BulkImportRowResult.Status.DUPLICATE, null));
+        Assertions.assertThat(valid.getPassword()).isEqualTo("{bcrypt}hash");
+    }
+
+    @Test
+    void importUsers_ClientSuppliedServerFields_AreDropped() {
+        // Arrange: a row that tries to overwrite an existing user and backdate itself
+        UserModel row = user("first", "first@example.com", "1111111111");
+        row.setId(1001L);
+        row.setUserId("admin1001");
+        row.setStatus("DISABLED");
+        row.setCreatedAt(LocalDateTime.of(2020, 1, 1, 0, 0));
+        row.setUpdatedAt(LocalDateTime.of(2020, 1, 1, 0, 0));
+
+        when(userRepo.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepo.findExistingPhones(anyCollection())).thenReturn(Set.of());
+        when(encoder.encodeAll(anyList())).thenReturn(List.of("{bcrypt}hash"));
+        runTransactions();
+        when(userRepo.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        userImportService.importUsers(List.of(row).iterator());
+
+        // Assert: saved as a new, enabled user so the insert is a batched persist rather than a merge
+        verify(userRepo).saveAllAndFlush(List.of(row));
+        Assertions.assertThat(row.getId()).isNull();
+        Assertions.assertThat(row.getUserId()).isNull();
+        Assertions.assertThat(row.getStatus()).isEqualTo("ENABLED");
+        Assertions.assertThat(row.getCreatedAt()).isNull();
+        Assertions.assertThat(row.getUpdatedAt()).isNull();
+    }
+
+    @Test
+    void importUsers_BatchConflict_RetriesRowByRow() {
+        // Arrange
+        UserModel first = user("first", "first@example.com", "1111111111");
+        UserModel second = user("second", "second@example.com", "2222222222");
+
+        when(userRepo.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepo.findExistingPhones(anyCollection())).thenReturn(Set.of());
+        when(encoder.encodeAll(anyList())).thenReturn(List.of("{bcrypt}hash1", "{bcrypt}hash2"));
+        runTransactions();
+        when(userRepo.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(userRepo.saveAndFlush(first)).thenReturn(first);
+        when(userRepo.saveAndFlush(second)).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        // Act
+        BulkImportResponseDto response = userImportService.importUsers(List.of(first, second).iterator());
+
+        // Assert
+        Assertions.assertThat(response.getRows())
+                .extracting(BulkImportRowResult::getStatus)
+                .containsExactly(BulkImportRowResult.Status.CREATED, BulkImportRowResult.Status.DUPLICATE);
+        verify(userRepo, times(1)).saveAndFlush(second);
+    }
+
+    @Test
+    void importUsers_EveryChunk_ClearsThePersistenceContext() {
+        // Arrange: five rows with a chunk size of two make three chunks
+        List<UserModel> users = List.of(
+                user("u1", "u1@example.com", "1111111111"),
+                user("u2", "u2@example.com", "2222222222"),
+                user("u3", "u3@example.com", "3333333333"),
+                user("u4", "u4@example.com", "4444444444"),
+                user("u5", "u5@example.com", "5555555555"));
+
+        when(userRepo.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepo.findExistingPhones(anyCollection())).thenReturn(Set.of());
+        when(encoder.encodeAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream()
+                .map(password -> "{bcrypt}hash")
+                .toList());
+        runTransactions();
+        when(userRepo.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        userImportService.importUsers(users.iterator());
+
+        // Assert: each chunk's entities are detached once it is written, so none outlive their chunk
+        InOrder inOrder = inOrder(userRepo, entityManager);
+        for (int chunk = 0; chunk < 3; chunk++) {
+            inOrder.verify(userRepo).saveAllAndFlush(anyList());
+            inOrder.verify(entityManager).clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactions() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static UserModel user(String firstName, String email, String phone) {
+        return UserModel.builder()
+                .firstName(firstName)
+                .lastName("lastName")
+                .password("Password@123")
+                .role("USER")
+                .customerId("apple")
+                .status("ENABLED")
+                .email(email)
+                .phone(phone)
+                .build();
+    }
+}
@@ -1,31 +1,58 @@
 package com.hire10x.createuser.service;
 
+import com.hire10x.createuser.cache.CaffeineUserProfileCache;
+import com.hire10x.createuser.cache.UserPrincipalCache;
+import com.hire10x.createuser.dto.UserBatchResponseDto;
 import com.hire10x.createuser.dto.UserModelDto;
 import com.hire10x.createuser.dto.UserResponseDto;
+import com.hire10x.createuser.dto.TokenResponseDto;
+import com.hire10x.createuser.exceptions.InvalidRefreshTokenException;
+import com.hire10x.createuser.exceptions.DuplicateEntryException;
+import com.hire10x.createuser.exceptions.InvalidCursorException;
 import com.hire10x.createuser.exceptions.UserNotFoundException;
 import com.hire10x.createuser.model.UserModel;
+import com.hire10x.createuser.model.UserPrinciple;
+import com.hire10x.createuser.repository.UserCredentialsView;
+import com.hire10x.createuser.repository.UserProfileView;
 import com.hire10x.createuser.repository.UserRepo;
 import com.hire10x.createuser.mapper.UserModelMapper;
 import org.assertj.core.api.Assertions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -40,6 +67,18 @@ class UserServiceTest {
     @Mock
     private UserModelMapper userModelMapper;
 
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JWTService jwtService;
+
+    @Spy
+    private UserPrincipalCache principalCache = new UserPrincipalCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Spy
+    private CaffeineUserProfileCache profileCache = new CaffeineUserProfileCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
 
     @InjectMocks
     private UserService userService;
@@ -80,6 +119,24 @@ class UserServiceTest {
         Assertions.assertThat(resultUserId).isEqualTo("firstName1001");
     }
 
+    @Test
+    void UserService_CreateUser_StoresEncodedPassword() {
+        // Arrange
+        UserModel userModel = UserModel.builder()
+                .firstName("firstName")
+                .password("Password@123")
+                .build();
+
+        when(passwordEncoder.encode("Password@123")).thenReturn("{bcrypt}$2a$10$hash");
+        when(userRepo.save(any(UserModel.class))).thenReturn(userModel);
+
+        // Act
+        userService.addUser(userModel);
+
+        // Assert
+        Assertions.assertThat(userModel.getPassword()).isEqualTo("{bcrypt}$2a$10$hash");
+    }
+
     @Test
     void UserService_CreateUser_ThrowsException_OnDuplicateEmailOrPhone() {
         // Arrange
@@ -105,6 +162,27 @@ class UserServiceTest {
         Assertions.assertThat(exception.getMessage()).isEqualTo("Email or phone number already exists");
     }
 
+    @Test
+    void UserService_CreateUser_ExistingEmailOrPhone_RejectedBeforeHashing() {
+        // Arrange
+        UserModel userModel = UserModel.builder()
+                .firstName("firstName")
+                .password("Password@123")
+                .email("john.doe@example.com")
+                .phone("1234567890")
+                .build();
+
+        // Assumption
+        when(userRepo.existsByEmailOrPhone("john.doe@example.com", "1234567890")).thenReturn(true);
+
+        // Act & Assert
+        Assertions.assertThatThrownBy(() -> userService.addUser(userModel))
+                .isInstanceOf(DuplicateEntryException.class)
+                .hasMessage("Email or phone number already exists");
+        verify(passwordEncoder, never()).encode(anyString());  // No BCrypt work for a duplicate
+        verify(userRepo, never()).save(any(UserModel.class));
+    }
+
     @Test
     void UserService_CreateUser_Success() {
         // Arrange
@@ -136,16 +214,8 @@ class UserServiceTest {
         // Arrange
         String userId = "firstName1001";
 
-        UserModel userModel = UserModel.builder()
-                .id(1001L)
-                .firstName("firstName")
-                .lastName("lastName")
-                .userId(userId)
-                .password("Password@123")
-                .role("ADMIN")
-                .customerId("Company1")
-                .phone("1234567890")
-                .build();
+        UserProfileView profile = new UserProfileView(1001L, userId, "firstName", "lastName", null,
+                "1234567890", null, null, "ADMIN", "Company1", null, null);
 
         UserModelDto expectedDto = UserModelDto.builder()
                 .firstName("firstName")
@@ -160,8 +230,8 @@ class UserServiceTest {
                 .build();
 
         // Assumption
-        when(userRepo.findByUserId(userId)).thenReturn(Optional.of(userModel));
-        when(userModelMapper.toDto(userModel)).thenReturn(expectedDto);
+        when(userRepo.findProfileByUserId(userId)).thenReturn(Optional.of(profile));
+        when(userModelMapper.toDto(profile)).thenReturn(expectedDto);
 
         // Act
         UserModelDto resultDto = userService.getUserByUserid(userId);
@@ -173,11 +243,128 @@ class UserServiceTest {
     }
 
 
+    @Test
+    void UserService_GetUserByUserId_ServedFromCacheUntilStatusChanges() {
+        // Arrange
+        String userId = "firstName101";
+        UserProfileView profile = profile(userId);
+        UserModelDto dto = UserModelDto.builder().userId(userId).firstName("firstName").build();
+        when(userRepo.findProfileByUserId(userId)).thenReturn(Optional.of(profile));
+        when(userRepo.updateStatusIfChanged(eq(userId), eq("DISABLED"), any(LocalDateTime.class))).thenReturn(1);
+        when(userModelMapper.toDto(profile)).thenReturn(dto);
+
+        // Act
+        userService.getUserByUserid(userId);
+        userService.getUserByUserid(userId);
+        userService.updateStatus(userId, "DISABLED");
+        userService.getUserByUserid(userId);
+
+        // Assert: one load before the update and one reload after the eviction
+        verify(userRepo, times(2)).findProfileByUserId(userId);
+        verify(profileCache).evict(userId);
+    }
+
+
+    @Test
+    void UserService_GetUserByUserId_ConcurrentMissesShareOneQuery() throws Exception {
+        // Arrange: the first query blocks until every caller is parked on it
+        String userId = "firstName101";
+        int callers = 16;
+        UserProfileView profile = profile(userId);
+        UserModelDto dto = UserModelDto.builder().userId(userId).firstName("firstName").build();
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepo.findProfileByUserId(userId)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(profile);
+        });
+        when(userModelMapper.toDto(profile)).thenReturn(dto);
+
+        List<UserModelDto> results = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            Thread thread = new Thread(() -> results.add(userService.getUserByUserid(userId)));
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Act: wait until the leader sits in the query and every follower waits on its result
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING
+                && thread.getState() != Thread.State.TIMED_WAITING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        // Assert: the profile cache hands every caller the one load in flight
+        Assertions.assertThat(results).hasSize(callers).containsOnly(dto);
+        verify(userRepo, times(1)).findProfileByUserId(userId);
+    }
+
+
+    @Test
+    void UserService_LoadUserByUsername_ConcurrentLoginsShareOneQuery() throws Exception {
+        // Arrange: password logins bypass both caches, the first query blocks until every caller is parked on it
+        String userId = "firstName101";
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepo.findCredentialsByUserId(userId)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(new UserCredentialsView(userId, "hashedPassword", "ENABLED"));
+        });
+
+        List<UserDetails> results = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            Thread thread = new Thread(() -> results.add(userService.loadUserByUsername(userId)));
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Act: wait until the leader sits in the query and every follower waits on its result
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING
+                && thread.getState() != Thread.State.TIMED_WAITING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        // Assert: N logins, one query and so one pooled connection instead of N
+        Assertions.assertThat(results).hasSize(callers).allMatch(user -> userId.equals(user.getUsername()));
+        verify(userRepo, times(1)).findCredentialsByUserId(userId);
+    }
+
+
+    @Test
+    void UserService_GetUsersByUserIds_ReturnsFoundAndMissing() {
+        // Arrange
+        UserProfileView profile = profile("firstName101");
+        UserModelDto dto = UserModelDto.builder().userId("firstName101").firstName("firstName").build();
+        when(userRepo.findProfilesByUserIdIn(anyCollection())).thenReturn(List.of(profile));
+        when(userModelMapper.profilesToDto(List.of(profile))).thenReturn(List.of(dto));
+
+        // Act
+        UserBatchResponseDto result = userService.getUsersByUserIds(List.of("firstName101", "unknown1", "firstName101"));
+
+        // Assert
+        Assertions.assertThat(result.getUsers()).containsOnlyKeys("firstName101");
+        Assertions.assertThat(result.getMissing()).containsExactly("unknown1");
+        verify(userRepo, times(1)).findProfilesByUserIdIn(anyCollection());
+    }
+
+
     @Test
     void UserService_GetUserByUserId_ThrowsUserNotFoundException() {
         // Arrange
         String userId = "firstName101";
-        when(userRepo.findByUserId(userId)).thenReturn(Optional.empty());
+        when(userRepo.findProfileByUserId(userId)).thenReturn(Optional.empty());
 
         // Act
         UserNotFoundException exception = Assertions.catchThrowableOfType(
@@ -197,22 +384,17 @@ class UserServiceTest {
         // Arrange
         String userId = "firstName1001";
         String newStatus = "DISABLED";
-        UserModel userModel = UserModel.builder()
-                .userId(userId)
-                .firstName("firstName")
-                .status("ENABLED")
-                .build();
 
-        // Assumption
-        when(userRepo.findByUserId(userId)).thenReturn(Optional.of(userModel));
+        // Assumption: the conditional update matched the row
+        when(userRepo.updateStatusIfChanged(eq(userId), eq(newStatus), any(LocalDateTime.class))).thenReturn(1);
 
         // Act
         String result = userService.updateStatus(userId, newStatus);
 
         // Assert
         Assertions.assertThat(result).isEqualTo("User status changed successfully to DISABLED");
-        Assertions.assertThat(userModel.getStatus()).isEqualTo("DISABLED");
-        verify(userRepo, times(1)).save(userModel);  // This is to verify that the userRepo.save method was called
+        verify(userRepo, never()).findByUserId(anyString());  // One UPDATE, no read-modify-write
+        verify(userRepo, never()).save(any(UserModel.class));
     }
 
     @Test
@@ -220,21 +402,17 @@ class UserServiceTest {
         // Arrange
         String userId = "firstName1001";
         String status = "ENABLED";
-        UserModel userModel = UserModel.builder()
-                .userId(userId)
-                .firstName("firstName")
-                .status(status)
-                .build();
 
-        // Assumption
-        when(userRepo.findByUserId(userId)).thenReturn(Optional.of(userModel));
+        // Assumption: no row changed, but the user exists
+        when(userRepo.updateStatusIfChanged(eq(userId), eq(status), any(LocalDateTime.class))).thenReturn(0);
+        when(userRepo.existsByUserId(userId)).thenReturn(true);
 
         // Act
         String result = userService.updateStatus(userId, status);
 
         // Assert
         Assertions.assertThat(result).isEqualTo("User status is already ENABLED");
-        verify(userRepo, never()).save(any(UserModel.class));  // This is to Verify that userRepo.save is not called
+        verify(principalCache, never()).evict(userId);  // Nothing changed, so cached entries stay
     }
 
 
@@ -245,14 +423,13 @@ class UserServiceTest {
         String status = "DISABLED";
 
         // Assumption
-        when(userRepo.findByUserId(userId)).thenReturn(Optional.empty());
+        when(userRepo.updateStatusIfChanged(eq(userId), eq(status), any(LocalDateTime.class))).thenReturn(0);
+        when(userRepo.existsByUserId(userId)).thenReturn(false);
 
         // Act & Assert
         Assertions.assertThatThrownBy(() -> userService.updateStatus(userId, status))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessageContaining("User not found with ID: " + userId);
-
-        verify(userRepo, never()).save(any(UserModel.class));  // This is to Verify that userRepo.save is not called
     }
 
 
@@ -349,27 +526,15 @@ class UserServiceTest {
         // Arrange
         String companyId = "apple";
 
-        // Creating two UserModel instances for testing
-        UserModel user1 = UserModel.builder()
-                .userId("fname1001")
-                .firstName("fname")
-                .lastName("lname")
-                .role("ADMIN")
-                .status("ENABLED")
-                .customerId(companyId)
-                .build();
+        // Creating two search rows for testing
+        UserProfileView user1 = new UserProfileView(1001L, "fname1001", "fname", "lname", null, null, null,
+                null, "ADMIN", companyId, null, null);
 
-        UserModel user2 = UserModel.builder()
-                .userId("fname1002")
-                .firstName("fname")
-                .lastName("lname")
-                .role("ADMIN")
-                .status("DISABLED")
-                .customerId(companyId)
-                .build();
+        UserProfileView user2 = new UserProfileView(1002L, "fname1002", "fname", "lname", null, null, null,
+                null, "ADMIN", companyId, null, null);
 
         // Adding the users to a list
-        List<UserModel> users = Arrays.asList(user1, user2);
+        List<UserProfileView> users = Arrays.asList(user1, user2);
 
         // Creating corresponding UserModelDto instances using the builder pattern
         List<UserModelDto> userDtos = Arrays.asList(
@@ -390,22 +555,110 @@ class UserServiceTest {
         );
 
         // Mocking the repository and mapper calls
-        when(userRepo.findAll()).thenReturn(users);
-        when(userModelMapper.toDto(anyList())).thenReturn(userDtos);
+        when(userRepo.searchProfiles(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(users, PageRequest.of(0, 10), users.size()));
+        when(userModelMapper.profilesToDto(anyList())).thenReturn(userDtos);
 
         // Act
         UserResponseDto response = userService.getAllUsers(null, null, companyId, 0, 10);
 
         // Assert
         assertEquals(2, response.getCount()); // We expect two users in the response
-        verify(userRepo, times(1)).findAll(); // Ensure the repository's findAll method was called once
-        verify(userModelMapper, times(1)).toDto(anyList()); // Ensure the mapper's toDto method was called
+        assertEquals(1, response.getPageCount());
+        verify(userRepo, times(1)).searchProfiles(any(Specification.class), any(Pageable.class)); // Filtering and paging happen in one repository call
+        verify(userRepo, never()).findAll(); // The whole table is never loaded
+        verify(userModelMapper, times(1)).profilesToDto(anyList()); // Ensure the mapper was called
+    }
+
+    @Test
+    void testGetAllUsers_PageBeyondLastPage_ReturnsLastPage() {
+        // Arrange
+        UserProfileView user = profile("fname1001");
+
+        when(userRepo.searchProfiles(any(Specification.class), eq(PageRequest.of(5, 10, Sort.by("createdAt", "id")))))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(5, 10), 11));
+        when(userRepo.searchProfiles(any(Specification.class), eq(PageRequest.of(1, 10, Sort.by("createdAt", "id")))))
+                .thenReturn(new PageImpl<>(List.of(user), PageRequest.of(1, 10), 11));
+        when(userModelMapper.profilesToDto(anyList())).thenReturn(List.of(new UserModelDto()));
+
+        // Act
+        UserResponseDto response = userService.getAllUsers(null, null, "apple", 5, 10);
+
+        // Assert
+        assertEquals(11, response.getCount());
+        assertEquals(2, response.getPageCount());
+        assertEquals(1, response.getCurrentPage());
+        assertEquals(1, response.getUsers().size());
+    }
+
+    @Test
+    void testGetAllUsers_NoMatches_ReportsPageZero() {
+        // Arrange
+        when(userRepo.searchProfiles(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(3, 10), 0));
+        when(userModelMapper.profilesToDto(anyList())).thenReturn(List.of());
+
+        // Act
+        UserResponseDto response = userService.getAllUsers(null, null, "apple", 3, 10);
+
+        // Assert
+        assertEquals(0, response.getCount());
+        assertEquals(0, response.getPageCount());
+        assertEquals(0, response.getCurrentPage());
+    }
+
+    @Test
+    void testGetUsersAfter_ReturnsNextCursorAndSkipsCount() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        List<UserProfileView> users = List.of(
+                searchRow(1001L, createdAt),
+                searchRow(1002L, createdAt),
+                searchRow(1003L, createdAt));
+
+        when(userRepo.searchProfiles(any(Specification.class), any(Sort.class), eq(3))).thenReturn(users);
+        when(userModelMapper.profilesToDto(anyList())).thenReturn(List.of(new UserModelDto(), new UserModelDto()));
+
+        // Act
+        UserResponseDto response = userService.getUsersAfter(null, null, "apple", "", 2, false);
+
+        // Assert
+        assertEquals(2, response.getUsers().size());
+        assertEquals(-1, response.getCount());
+        assertEquals(new UserSearchCursor(createdAt, 1002L), UserSearchCursor.decode(response.getNextCursor()));
+        verify(userRepo, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void testGetUsersAfter_LastPage_HasNoNextCursorAndCounts() {
+        // Arrange
+        String cursor = new UserSearchCursor(LocalDateTime.of(2024, 1, 1, 10, 0), 1002L).encode();
+        List<UserProfileView> users = List.of(searchRow(1003L, LocalDateTime.of(2024, 1, 2, 10, 0)));
+
+        when(userRepo.searchProfiles(any(Specification.class), any(Sort.class), eq(3))).thenReturn(users);
+        when(userRepo.count(any(Specification.class))).thenReturn(3L);
+        when(userModelMapper.profilesToDto(anyList())).thenReturn(List.of(new UserModelDto()));
+
+        // Act
+        UserResponseDto response = userService.getUsersAfter(null, null, null, cursor, 2, true);
+
+        // Assert
+        assertNull(response.getNextCursor());
+        assertEquals(3, response.getCount());
+        assertEquals(2, response.getPageCount());
+    }
+
+    @Test
+    void testGetUsersAfter_InvalidCursor_ThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () ->
+                userService.getUsersAfter(null, null, null, "not-a-cursor", 10, true));
+        verifyNoInteractions(userRepo);
     }
 
     @Test
     void testGetAllUsers_ExceptionHandling() {
         // Arrange
-        when(userRepo.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(userRepo.searchProfiles(any(Specification.class), any(Pageable.class))).thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -413,7 +666,7 @@ class UserServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("An error occurred while fetching users"));
-        verify(userRepo, times(1)).findAll();
+        verify(userRepo, times(1)).searchProfiles(any(Specification.class), any(Pageable.class));
     }
 
 
@@ -421,16 +674,9 @@ class UserServiceTest {
     void loadUserByUsername_UserExists_ReturnsUserDetails() {
         // Arrange
         String username = "validUserId";
-        UserModel user = UserModel.builder()
-                .userId(username)
-                .firstName("John")
-                .lastName("Doe")
-                .email("john.doe@example.com")
-                .password("Password@123")
-                .role("USER")
-                .build();
+        UserCredentialsView user = new UserCredentialsView(username, "Password@123", "ENABLED");
 
-        when(userRepo.findByUserId(username)).thenReturn(Optional.of(user));
+        when(userRepo.findCredentialsByUserId(username)).thenReturn(Optional.of(user));
 
         // Act
         UserDetails userDetails = userService.loadUserByUsername(username);
@@ -438,15 +684,97 @@ class UserServiceTest {
         // Assert
         Assertions.assertThat(userDetails.getUsername()).isEqualTo(username);
         Assertions.assertThat(userDetails.getPassword()).isEqualTo("Password@123");
+        Assertions.assertThat(userDetails.isEnabled()).isTrue();
 
     }
 
 
+    @Test
+    void login_DisabledUser_RejectedBeforePasswordCheck() {
+        // Arrange
+        String username = "disabledUserId";
+        when(userRepo.findCredentialsByUserId(username))
+                .thenReturn(Optional.of(new UserCredentialsView(username, "hashedPassword", "DISABLED")));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userService);
+        provider.setPasswordEncoder(passwordEncoder);
+
+        // Act & Assert
+        Assertions.assertThatThrownBy(() -> provider.authenticate(new UsernamePasswordAuthenticationToken(username, "Password@123")))
+                .isInstanceOf(DisabledException.class);
+        verify(passwordEncoder, never()).matches(any(), any());
+    }
+
+    @Test
+    void loadPrincipalByUserId_DisabledUser_IsNotEnabled() {
+        // Arrange
+        String userId = "firstName1001";
+        when(userRepo.findCredentialsByUserId(userId))
+                .thenReturn(Optional.of(new UserCredentialsView(userId, "hashedPassword", "DISABLED")));
+
+        // Act
+        UserDetails principal = userService.loadPrincipalByUserId(userId);
+
+        // Assert
+        Assertions.assertThat(principal.isEnabled()).isFalse();
+    }
+
+    @Test
+    void loadPrincipalByUserId_RepeatedCalls_QueryDatabaseOnce() {
+        // Arrange
+        String userId = "firstName1001";
+        UserCredentialsView user = new UserCredentialsView(userId, "hashedPassword", "ENABLED");
+
+        when(userRepo.findCredentialsByUserId(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        UserDetails first = userService.loadPrincipalByUserId(userId);
+        UserDetails second = userService.loadPrincipalByUserId(userId);
+
+        // Assert
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(first.getUsername()).isEqualTo(userId);
+        Assertions.assertThat(first.getPassword()).isNull();
+        verify(userRepo, times(1)).findCredentialsByUserId(userId);
+    }
+
+    @Test
+    void loadPrincipalByUserId_AfterStatusUpdate_ReloadsFromDatabase() {
+        // Arrange
+        String userId = "firstName1001";
+
+        when(userRepo.updateStatusIfChanged(eq(userId), eq("DISABLED"), any(LocalDateTime.class))).thenReturn(1);
+        when(userRepo.findCredentialsByUserId(userId))
+                .thenReturn(Optional.of(new UserCredentialsView(userId, "hashedPassword", "ENABLED")));
+
+        // Act
+        userService.loadPrincipalByUserId(userId);
+        userService.updateStatus(userId, "DISABLED");
+        userService.loadPrincipalByUserId(userId);
+
+        // Assert
+        verify(principalCache, times(1)).evict(userId);
+        verify(userRepo, times(2)).findCredentialsByUserId(userId);
+    }
+
+    @Test
+    void updatePassword_StoresUpgradedHash() {
+        // Arrange
+        UserDetails user = new UserPrinciple("firstName1001", "$2a$12$oldHash");
+
+        // Act
+        UserDetails updated = userService.updatePassword(user, "{bcrypt}$2a$10$newHash");
+
+        // Assert
+        Assertions.assertThat(updated.getPassword()).isEqualTo("{bcrypt}$2a$10$newHash");
+        verify(userRepo, times(1)).updatePassword("firstName1001", "{bcrypt}$2a$10$newHash");
+    }
+
     @Test
     void loadUserByUsername_UserDoesNotExist_ThrowsUsernameNotFoundException() {
         // Arrange
         String username = "invalidUserId";
-        when(userRepo.findByUserId(username)).thenReturn(Optional.empty());
+        when(userRepo.findCredentialsByUserId(username)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(UsernameNotFoundException.class, () -> {
@@ -455,13 +783,60 @@ class UserServiceTest {
     }
 
 
+    private static UserProfileView profile(String userId) {
+        return new UserProfileView(1001L, userId, "firstName", "lastName", null, null, null, null,
+                "ADMIN", "Company1", null, null);
+    }
 
+    private static UserProfileView searchRow(Long id, LocalDateTime createdAt) {
+        return new UserProfileView(id, "fname" + id, "fname", "lname", null, null, null, null,
+                "ADMIN", "apple", createdAt, null);
+    }
 
+    @Test
+    void refreshTokens_ValidRefreshToken_IssuesNewPairWithoutPasswordCheck() {
+        // Arrange
+        String userId = "firstName1001";
+        when(jwtService.extractRefreshTokenUserId("refresh")).thenReturn(userId);
+        when(userRepo.findCredentialsByUserId(userId))
+                .thenReturn(Optional.of(new UserCredentialsView(userId, "hashedPassword", "ENABLED")));
+        when(jwtService.generateToken(userId)).thenReturn("newAccess");
+        when(jwtService.generateRefreshToken(userId)).thenReturn("newRefresh");
+        when(jwtService.getAccessTokenTtl()).thenReturn(Duration.ofMinutes(30));
 
+        // Act
+        TokenResponseDto tokens = userService.refreshTokens("refresh");
 
+        // Assert
+        Assertions.assertThat(tokens).isEqualTo(new TokenResponseDto("newAccess", "newRefresh", "Bearer", 1800));
+        verify(passwordEncoder, never()).matches(any(), any());
+    }
 
+    @Test
+    void refreshTokens_UnknownUser_ThrowsInvalidRefreshTokenException() {
+        // Arrange
+        String userId = "firstName1001";
+        when(jwtService.extractRefreshTokenUserId("refresh")).thenReturn(userId);
+        when(userRepo.findCredentialsByUserId(userId)).thenReturn(Optional.empty());
 
+        // Act & Assert
+        Assertions.assertThatThrownBy(() -> userService.refreshTokens("refresh"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        verify(jwtService, never()).generateToken(anyString());
+    }
 
+    @Test
+    void refreshTokens_DisabledUser_ThrowsInvalidRefreshTokenException() {
+        // Arrange
+        String userId = "firstName1001";
+        when(jwtService.extractRefreshTokenUserId("refresh")).thenReturn(userId);
+        when(userRepo.findCredentialsByUserId(userId))
+                .thenReturn(Optional.of(new UserCredentialsView(userId, "hashedPassword", "DISABLED")));
 
-
+        // Act & Assert
+        Assertions.assertThatThrownBy(() -> userService.refreshTokens("refresh"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        verify(jwtService, never()).generateToken(anyString());
+        verify(jwtService, never()).generateRefreshToken(anyString());
+    }
 }